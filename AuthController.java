@@ -1,6 +1,7 @@
 package mini_twitter.user_service.controller;
 
 import mini_twitter.user_service.dto.LoginUserRequest;
+import mini_twitter.user_service.dto.PasswordHashingStats;
 import mini_twitter.user_service.dto.TokenResponse;
 import mini_twitter.user_service.dto.WebResponse;
 import mini_twitter.user_service.entity.User;
@@ -11,6 +12,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+
 @RestController
 public class AuthController {
 
@@ -55,4 +58,23 @@ public class AuthController {
             return WebResponse.<String>builder().data("Error").build();
         }
     }
+
+    // Fetched by services that verify signed tokens locally, on startup and periodically
+    @GetMapping(
+            path = "/api/internal/tokens/revoked",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponse<Map<String, Long>> getRevokedTokens() {
+        Map<String, Long> revoked = authService.getRevokedTokens();
+        logger.debug("Serving {} revoked token hashes", revoked.size());
+        return WebResponse.<Map<String, Long>>builder().data(revoked).build();
+    }
+
+    @GetMapping(
+            path = "/api/auth/password-hashing",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponse<PasswordHashingStats> getPasswordHashingStats() {
+        return WebResponse.<PasswordHashingStats>builder().data(authService.getPasswordHashingStats()).build();
+    }
 }
@@ -2,17 +2,22 @@ package mini_twitter.user_service.service;
 
 import jakarta.transaction.Transactional;
 import mini_twitter.user_service.dto.LoginUserRequest;
+import mini_twitter.user_service.dto.PasswordHashingStats;
 import mini_twitter.user_service.dto.TokenResponse;
 import mini_twitter.user_service.entity.User;
 import mini_twitter.user_service.repository.UserRepository;
-import mini_twitter.user_service.security.BCrypt;
+import mini_twitter.user_service.security.PasswordHasher;
+import mini_twitter.user_service.webclient.TokenInvalidationPublisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -26,6 +31,18 @@ public class AuthService {
     @Autowired
     private ValidationService validationService;
 
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private TokenIndex tokenIndex;
+
+    @Autowired
+    private TokenInvalidationPublisher tokenInvalidationPublisher;
+
+    @Autowired
+    private SignedTokenService signedTokenService;
+
     @Transactional
     public TokenResponse login(LoginUserRequest request) {
         validationService.validate(request);
@@ -38,12 +55,25 @@ public class AuthService {
                     return new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Username or password wrong");
                 });
 
-        if (BCrypt.checkpw(request.getPassword(), user.getPassword())) {
-            String token = UUID.randomUUID().toString();
+        if (passwordHasher.check(request.getPassword(), user.getPassword())) {
+            Long expiredAt = next30Days();
+            String token = signedTokenService.isEnabled()
+                    ? signedTokenService.issue(user.getId(), expiredAt)
+                    : UUID.randomUUID().toString();
+            // A new login ends the previous session, as replacing users.token always did
+            String previousToken = user.getToken();
             user.setToken(token);
-            user.setTokenExpiredAt(next30Days());
+            user.setTokenExpiredAt(expiredAt);
             userRepository.save(user);
 
+            String userId = user.getId();
+            afterCommit(() -> {
+                if (previousToken != null) {
+                    invalidate(previousToken);
+                }
+                tokenIndex.put(token, userId, expiredAt);
+            });
+
             logger.info("User {} logged in successfully. Token: {}", request.getUsername(), token);
 
             return TokenResponse.builder()
@@ -57,21 +87,58 @@ public class AuthService {
     }
 
     private Long next30Days() {
-        return System.currentTimeMillis() + (1000 * 60 * 60 * 24 * 30);
+        return System.currentTimeMillis() + (1000L * 60 * 60 * 24 * 30);
     }
 
     @Transactional
     public void logout(String token) {
         logger.info("Logging out user with token: {}", token);
 
-        User user = userRepository.findFirstByToken(token)
-                .orElseThrow(() -> new IllegalArgumentException("Invalid token"));
+        User user = userRepository.findFirstByToken(token).orElse(null);
+        if (user == null) {
+            // A signed token replaced by a newer login is no longer on the user row but must still be revocable
+            if (signedTokenService.isIssued(token)) {
+                afterCommit(() -> invalidate(token));
+                logger.info("Revoked superseded signed token");
+                return;
+            }
+            throw new IllegalArgumentException("Invalid token");
+        }
 
         user.setToken(null);
         user.setTokenExpiredAt(null);
 
         userRepository.save(user);
+        afterCommit(() -> invalidate(token));
 
         logger.info("User {} logged out successfully", user.getUsername());
     }
+
+    // Drops a token from every cache that could still accept it
+    private void invalidate(String token) {
+        tokenIndex.evict(token);
+        signedTokenService.revoke(token);
+        tokenInvalidationPublisher.publish(token);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    public Map<String, Long> getRevokedTokens() {
+        return signedTokenService.getRevocations();
+    }
+
+    public PasswordHashingStats getPasswordHashingStats() {
+        return passwordHasher.stats();
+    }
 }
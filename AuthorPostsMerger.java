@@ -0,0 +1,111 @@
+package mini_twitter.post_service.service;
+
+import mini_twitter.post_service.entity.Post;
+import mini_twitter.post_service.repository.PostRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Merges the newest posts of many authors into one timeline-ordered page, shared by the pull timeline
+ * and the by-authors endpoint.
+ * <p>
+ * The newest {@code perAuthor} posts of every author older than the cursor are loaded with one windowed
+ * query per chunk of {@code posts.authors-per-query} authors and merged newest first through a heap.
+ * An author that returned a full {@code perAuthor} rows may have older posts that were not loaded. When
+ * the merge reaches that author's last loaded post, only that author is reloaded past it, deep enough to
+ * fill the rest of the page, so each author is reloaded at most once per page and the page never ends
+ * early.
+ */
+@Component
+public class AuthorPostsMerger {
+
+    // Upper bound for the first page; every stored created_at is older
+    public static final LocalDateTime NEWEST = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private static final Comparator<Post> NEWEST_FIRST = Comparator.comparing(Post::getCreatedAt)
+            .thenComparing(Post::getId)
+            .reversed();
+
+    @Autowired
+    private PostRepository postRepository;
+
+    private final int authorsPerQuery;
+
+    public AuthorPostsMerger(@Value("${posts.authors-per-query:500}") int authorsPerQuery) {
+        this.authorsPerQuery = authorsPerQuery;
+    }
+
+    /**
+     * Appends the posts older than ({@code createdAt}, {@code id}) of the given authors to {@code page}
+     * in timeline order, up to {@code pageSize} posts in total. At most {@code perAuthor} posts of each
+     * author are loaded up front; authors that reach it are reloaded as the page needs them.
+     *
+     * @return whether older posts may remain after the last one appended
+     */
+    public boolean merge(List<String> authorIds, LocalDateTime createdAt, String id,
+                         int perAuthor, int pageSize, List<Post> page) {
+        PriorityQueue<AuthorPosts> heap = new PriorityQueue<>(
+                Comparator.comparing(AuthorPosts::head, NEWEST_FIRST));
+        for (int from = 0; from < authorIds.size(); from += authorsPerQuery) {
+            List<String> chunk = authorIds.subList(from, Math.min(from + authorsPerQuery, authorIds.size()));
+            List<Post> rows = postRepository.findTopPerAuthorBefore(chunk, createdAt, id, perAuthor);
+            // Rows arrive grouped by author, newest first within each group
+            int start = 0;
+            for (int i = 1; i <= rows.size(); i++) {
+                if (i == rows.size() || !rows.get(i).getUserId().equals(rows.get(start).getUserId())) {
+                    heap.add(new AuthorPosts(rows.subList(start, i), i - start >= perAuthor));
+                    start = i;
+                }
+            }
+        }
+
+        while (!heap.isEmpty() && page.size() < pageSize) {
+            AuthorPosts author = heap.poll();
+            page.add(author.head());
+            if (author.advance()) {
+                heap.add(author);
+            } else if (author.truncated) {
+                // Older posts of this author were not loaded and may come next
+                int remaining = pageSize - page.size();
+                if (remaining == 0) {
+                    return true;
+                }
+                Post last = page.get(page.size() - 1);
+                List<Post> older = postRepository.findTopPerAuthorBefore(
+                        List.of(last.getUserId()), last.getCreatedAt(), last.getId(), remaining);
+                if (!older.isEmpty()) {
+                    heap.add(new AuthorPosts(older, older.size() >= remaining));
+                }
+            }
+        }
+        return !heap.isEmpty();
+    }
+
+    private static final class AuthorPosts {
+
+        private final List<Post> posts;
+
+        private final boolean truncated;
+
+        private int position;
+
+        private AuthorPosts(List<Post> posts, boolean truncated) {
+            this.posts = posts;
+            this.truncated = truncated;
+        }
+
+        private Post head() {
+            return posts.get(position);
+        }
+
+        private boolean advance() {
+            return ++position < posts.size();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package mini_twitter.post_service.service;
+
+import mini_twitter.post_service.entity.Post;
+import mini_twitter.post_service.repository.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AuthorPostsMergerTests {
+
+	private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+	private static final Comparator<Post> NEWEST_FIRST = Comparator.comparing(Post::getCreatedAt)
+			.thenComparing(Post::getId)
+			.reversed();
+
+	private final List<Post> stored = new ArrayList<>();
+
+	private final List<List<String>> queries = new ArrayList<>();
+
+	private AuthorPostsMerger merger;
+
+	@BeforeEach
+	void setUp() {
+		PostRepository postRepository = mock(PostRepository.class);
+		// Same contract as the windowed query: newest perAuthor posts per author before the cursor,
+		// grouped by author
+		when(postRepository.findTopPerAuthorBefore(anyList(), any(), anyString(), anyInt())).thenAnswer(invocation -> {
+			List<String> authors = invocation.getArgument(0);
+			LocalDateTime createdAt = invocation.getArgument(1);
+			String id = invocation.getArgument(2);
+			int perAuthor = invocation.getArgument(3);
+			queries.add(List.copyOf(authors));
+			List<Post> rows = new ArrayList<>();
+			authors.stream().sorted().forEach(author -> stored.stream()
+					.filter(post -> post.getUserId().equals(author))
+					.filter(post -> post.getCreatedAt().isBefore(createdAt)
+							|| (post.getCreatedAt().equals(createdAt) && post.getId().compareTo(id) < 0))
+					.sorted(NEWEST_FIRST)
+					.limit(perAuthor)
+					.forEach(rows::add));
+			return rows;
+		});
+
+		// Two authors per query, so merges span several chunks
+		merger = new AuthorPostsMerger(2);
+		ReflectionTestUtils.setField(merger, "postRepository", postRepository);
+	}
+
+	@Test
+	void reloadsOnlyACappedAuthorPastItsLastLoadedPost() {
+		post("a1", "alice", 10);
+		post("a2", "alice", 9);
+		post("a3", "alice", 8);
+		post("b1", "bob", 5);
+
+		List<Post> page = new ArrayList<>();
+		boolean hasMore = merger.merge(List.of("alice", "bob"), AuthorPostsMerger.NEWEST, "", 2, 10, page);
+
+		// alice's third post is newer than bob's, so it is loaded before bob is served
+		assertEquals(List.of("a1", "a2", "a3", "b1"), ids(page));
+		assertFalse(hasMore);
+		assertEquals(List.of(List.of("alice", "bob"), List.of("alice")), queries);
+	}
+
+	@Test
+	void fillsThePageWithOnePostPerAuthorLoaded() {
+		for (int i = 0; i < 6; i++) {
+			post("a" + i, "alice", 20 - 2 * i);
+			post("b" + i, "bob", 19 - 2 * i);
+		}
+
+		List<Post> page = new ArrayList<>();
+		assertTrue(merger.merge(List.of("alice", "bob"), AuthorPostsMerger.NEWEST, "", 1, 5, page));
+		assertEquals(List.of("a0", "b0", "a1", "b1", "a2"), ids(page));
+		// One reload each, deep enough for the rest of the page
+		assertEquals(3, queries.size());
+	}
+
+	@Test
+	void reportsMoreWhenThePageFillsUp() {
+		post("a1", "alice", 10);
+		post("b1", "bob", 9);
+		post("c1", "carol", 8);
+
+		List<Post> page = new ArrayList<>();
+		assertTrue(merger.merge(List.of("alice", "bob", "carol"), AuthorPostsMerger.NEWEST, "", 5, 2, page));
+		assertEquals(List.of("a1", "b1"), ids(page));
+	}
+
+	@Test
+	void pagingThroughReturnsEveryPostOnceInOrder() {
+		Random random = new Random(42);
+		List<String> authors = new ArrayList<>();
+		for (int author = 0; author < 7; author++) {
+			authors.add("user-" + author);
+			int posts = random.nextInt(30);
+			for (int i = 0; i < posts; i++) {
+				// Coarse timestamps, so ties are broken by id
+				post("p-" + author + "-" + i, "user-" + author, random.nextInt(40));
+			}
+		}
+
+		for (int perAuthor = 1; perAuthor <= 6; perAuthor++) {
+			List<Post> all = new ArrayList<>();
+			LocalDateTime createdAt = AuthorPostsMerger.NEWEST;
+			String id = "";
+			boolean hasMore = true;
+			while (hasMore) {
+				List<Post> page = new ArrayList<>();
+				hasMore = merger.merge(authors, createdAt, id, perAuthor, 5, page);
+				if (page.isEmpty()) {
+					break;
+				}
+				if (hasMore) {
+					assertEquals(5, page.size(), "perAuthor " + perAuthor);
+				}
+				all.addAll(page);
+				createdAt = page.get(page.size() - 1).getCreatedAt();
+				id = page.get(page.size() - 1).getId();
+			}
+
+			assertEquals(ids(stored.stream().sorted(NEWEST_FIRST).collect(Collectors.toList())), ids(all),
+					"perAuthor " + perAuthor);
+		}
+	}
+
+	private void post(String id, String userId, int minute) {
+		Post post = new Post();
+		post.setId(id);
+		post.setUserId(userId);
+		post.setContent(id);
+		post.setCreatedAt(BASE.plusMinutes(minute));
+		stored.add(post);
+	}
+
+	private static List<String> ids(List<Post> posts) {
+		return posts.stream().map(Post::getId).collect(Collectors.toList());
+	}
+
+}
@@ -0,0 +1,25 @@
+package mini_twitter.post_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class AuthorPostsRequestDto {
+
+    private List<String> authorIds;
+
+    // Cursor from a previous page's nextCursor; omit for the newest posts
+    private String before;
+
+    private Integer limit;
+
+    // At most this many posts of any single author are loaded by the batched query
+    private Integer perAuthor;
+}
@@ -209,10 +209,20 @@ public class BCrypt {
     static final int MIN_LOG_ROUNDS = 4;
     static final int MAX_LOG_ROUNDS = 31;
 
+    // Engine reused by hashpw on each thread, so the key schedule is not reallocated per call
+    private static final ThreadLocal<BCrypt> ENGINE = ThreadLocal.withInitial(BCrypt::new);
+
     // Expanded Blowfish key
-    private int P[];
+    private final int P[] = new int[P_orig.length];
+
+    private final int S[] = new int[S_orig.length];
+
+    // Scratch block, cipher text buffer and key stream offset reused across calls
+    private final int lr[] = new int[2];
+
+    private final int cdata[] = new int[bf_crypt_ciphertext.length];
 
-    private int S[];
+    private int streamOff;
 
     /**
      * Encode a byte array using bcrypt's slightly-modified base64 encoding scheme. Note
@@ -276,7 +286,6 @@ public class BCrypt {
      * @throws IllegalArgumentException if maxolen is invalid
      */
     static byte[] decode_base64(String s, int maxolen) throws IllegalArgumentException {
-        StringBuilder rs = new StringBuilder();
         int off = 0, slen = s.length(), olen = 0;
         byte ret[];
         byte c1, c2, c3, c4, o;
@@ -285,6 +294,7 @@ public class BCrypt {
             throw new IllegalArgumentException("Invalid maxolen");
         }
 
+        ret = new byte[maxolen];
         while (off < slen - 1 && olen < maxolen) {
             c1 = char64(s.charAt(off++));
             c2 = char64(s.charAt(off++));
@@ -293,7 +303,7 @@ public class BCrypt {
             }
             o = (byte) (c1 << 2);
             o |= (c2 & 0x30) >> 4;
-            rs.append((char) o);
+            ret[olen] = o;
             if (++olen >= maxolen || off >= slen) {
                 break;
             }
@@ -303,22 +313,18 @@ public class BCrypt {
             }
             o = (byte) ((c2 & 0x0f) << 4);
             o |= (c3 & 0x3c) >> 2;
-            rs.append((char) o);
+            ret[olen] = o;
             if (++olen >= maxolen || off >= slen) {
                 break;
             }
             c4 = char64(s.charAt(off++));
             o = (byte) ((c3 & 0x03) << 6);
             o |= c4;
-            rs.append((char) o);
+            ret[olen] = o;
             ++olen;
         }
 
-        ret = new byte[olen];
-        for (off = 0; off < olen; off++) {
-            ret[off] = (byte) rs.charAt(off);
-        }
-        return ret;
+        return olen == maxolen ? ret : Arrays.copyOf(ret, olen);
     }
 
     /**
@@ -350,61 +356,59 @@ public class BCrypt {
     }
 
     /**
-     * Cycically extract a word of key material
+     * Cycically extract a word of key material, advancing the key stream offset
      * @param data the string to extract the data from
-     * @param offp a "pointer" (as a one-entry array) to the current offset into data
-     * @param signp a "pointer" (as a one-entry array) to the cumulative flag for
-     * non-benign sign extension
-     * @return correct and buggy next word of material from data as int[2]
+     * @return the next word of material from data
      */
-    private static int[] streamtowords(byte data[], int offp[], int signp[]) {
-        int i;
-        int words[] = { 0, 0 };
-        int off = offp[0];
-        int sign = signp[0];
-
-        for (i = 0; i < 4; i++) {
-            words[0] = (words[0] << 8) | (data[off] & 0xff);
-            words[1] = (words[1] << 8) | data[off]; // sign extension bug
-            if (i > 0) {
-                sign |= words[1] & 0x80;
+    private int streamtoword(byte data[]) {
+        int word = 0, off = this.streamOff, len = data.length;
+
+        for (int i = 0; i < 4; i++) {
+            word = (word << 8) | (data[off] & 0xff);
+            if (++off == len) {
+                off = 0;
             }
-            off = (off + 1) % data.length;
         }
 
-        offp[0] = off;
-        signp[0] = sign;
-        return words;
+        this.streamOff = off;
+        return word;
     }
 
     /**
-     * Cycically extract a word of key material
+     * Cycically extract a word of key material, with sign-extension bug
      * @param data the string to extract the data from
-     * @param offp a "pointer" (as a one-entry array) to the current offset into data
      * @return the next word of material from data
      */
-    private static int streamtoword(byte data[], int offp[]) {
-        int signp[] = { 0 };
-        return streamtowords(data, offp, signp)[0];
+    private int streamtoword_bug(byte data[]) {
+        int word = 0, off = this.streamOff, len = data.length;
+
+        for (int i = 0; i < 4; i++) {
+            word = (word << 8) | data[off]; // sign extension bug
+            if (++off == len) {
+                off = 0;
+            }
+        }
+
+        this.streamOff = off;
+        return word;
     }
 
     /**
-     * Cycically extract a word of key material, with sign-extension bug
-     * @param data the string to extract the data from
-     * @param offp a "pointer" (as a one-entry array) to the current offset into data
-     * @return the next word of material from data
+     * Initialise the Blowfish key schedule
      */
-    private static int streamtoword_bug(byte data[], int offp[]) {
-        int signp[] = { 0 };
-        return streamtowords(data, offp, signp)[1];
+    private void init_key() {
+        System.arraycopy(P_orig, 0, this.P, 0, P_orig.length);
+        System.arraycopy(S_orig, 0, this.S, 0, S_orig.length);
     }
 
     /**
-     * Initialise the Blowfish key schedule
+     * Clear key material derived from the password once a hash is complete
      */
-    private void init_key() {
-        this.P = P_orig.clone();
-        this.S = S_orig.clone();
+    private void wipe_key() {
+        Arrays.fill(this.P, 0);
+        Arrays.fill(this.S, 0);
+        Arrays.fill(this.cdata, 0);
+        this.lr[0] = this.lr[1] = 0;
     }
 
     /**
@@ -415,16 +419,18 @@ public class BCrypt {
      */
     private void key(byte key[], boolean sign_ext_bug, int safety) {
         int i;
-        int koffp[] = { 0 };
-        int lr[] = { 0, 0 };
+        int lr[] = this.lr;
         int plen = this.P.length, slen = this.S.length;
 
+        this.streamOff = 0;
+        lr[0] = lr[1] = 0;
+
         for (i = 0; i < plen; i++) {
             if (!sign_ext_bug) {
-                this.P[i] = this.P[i] ^ streamtoword(key, koffp);
+                this.P[i] = this.P[i] ^ streamtoword(key);
             }
             else {
-                this.P[i] = this.P[i] ^ streamtoword_bug(key, koffp);
+                this.P[i] = this.P[i] ^ streamtoword_bug(key);
             }
         }
 
@@ -450,21 +456,30 @@ public class BCrypt {
      * @param safety bit 16 is set when the safety measure is requested
      */
     private void ekskey(byte data[], byte key[], boolean sign_ext_bug, int safety) {
-        int i;
-        int koffp[] = { 0 }, doffp[] = { 0 };
-        int lr[] = { 0, 0 };
-        int plen = this.P.length, slen = this.S.length;
-        int signp[] = { 0 }; // non-benign sign-extension flag
+        int i, j;
+        int lr[] = this.lr;
+        int plen = this.P.length, slen = this.S.length, klen = key.length;
+        int koff = 0;
+        int sign = 0; // non-benign sign-extension flag
         int diff = 0; // zero iff correct and buggy are same
 
         for (i = 0; i < plen; i++) {
-            int words[] = streamtowords(key, koffp, signp);
-            diff |= words[0] ^ words[1];
-            this.P[i] = this.P[i] ^ words[sign_ext_bug ? 1 : 0];
+            // Extract the correct and the sign-extended word of key material in one pass
+            int word = 0, word_bug = 0;
+            for (j = 0; j < 4; j++) {
+                word = (word << 8) | (key[koff] & 0xff);
+                word_bug = (word_bug << 8) | key[koff]; // sign extension bug
+                if (j > 0) {
+                    sign |= word_bug & 0x80;
+                }
+                if (++koff == klen) {
+                    koff = 0;
+                }
+            }
+            diff |= word ^ word_bug;
+            this.P[i] = this.P[i] ^ (sign_ext_bug ? word_bug : word);
         }
 
-        int sign = signp[0];
-
         /*
          * At this point, "diff" is zero iff the correct and buggy algorithms produced
          * exactly the same result. If so and if "sign" is non-zero, which indicates that
@@ -493,17 +508,20 @@ public class BCrypt {
          */
         this.P[0] ^= sign;
 
+        this.streamOff = 0;
+        lr[0] = lr[1] = 0;
+
         for (i = 0; i < plen; i += 2) {
-            lr[0] ^= streamtoword(data, doffp);
-            lr[1] ^= streamtoword(data, doffp);
+            lr[0] ^= streamtoword(data);
+            lr[1] ^= streamtoword(data);
             encipher(lr, 0);
             this.P[i] = lr[0];
             this.P[i + 1] = lr[1];
         }
 
         for (i = 0; i < slen; i += 2) {
-            lr[0] ^= streamtoword(data, doffp);
-            lr[1] ^= streamtoword(data, doffp);
+            lr[0] ^= streamtoword(data);
+            lr[1] ^= streamtoword(data);
             encipher(lr, 0);
             this.S[i] = lr[0];
             this.S[i + 1] = lr[1];
@@ -528,7 +546,7 @@ public class BCrypt {
      */
     private byte[] crypt_raw(byte password[], byte salt[], int log_rounds, boolean sign_ext_bug, int safety,
                              boolean for_check) {
-        int cdata[] = bf_crypt_ciphertext.clone();
+        int cdata[] = this.cdata;
         int clen = cdata.length;
 
         long rounds;
@@ -552,6 +570,7 @@ public class BCrypt {
             throw new IllegalArgumentException("Bad salt length");
         }
 
+        System.arraycopy(bf_crypt_ciphertext, 0, cdata, 0, clen);
         init_key();
         ekskey(salt, password, sign_ext_bug, safety);
         for (int i = 0; i < rounds; i++) {
@@ -572,6 +591,7 @@ public class BCrypt {
             ret[j++] = (byte) ((cdata[i] >> 8) & 0xff);
             ret[j++] = (byte) (cdata[i] & 0xff);
         }
+        wipe_key();
         return ret;
     }
 
@@ -604,12 +624,11 @@ public class BCrypt {
     }
 
     private static String hashpw(byte passwordb[], String salt, boolean for_check) {
-        BCrypt B;
         String real_salt;
         byte saltb[], hashed[];
         char minor = (char) 0;
         int rounds, off;
-        StringBuilder rs = new StringBuilder();
+        StringBuilder rs = new StringBuilder(60);
 
         if (salt == null) {
             throw new IllegalArgumentException("salt cannot be null");
@@ -652,8 +671,7 @@ public class BCrypt {
             passwordb = Arrays.copyOf(passwordb, passwordb.length + 1);
         }
 
-        B = new BCrypt();
-        hashed = B.crypt_raw(passwordb, saltb, rounds, minor == 'x', minor == 'a' ? 0x10000 : 0, for_check);
+        hashed = ENGINE.get().crypt_raw(passwordb, saltb, rounds, minor == 'x', minor == 'a' ? 0x10000 : 0, for_check);
 
         rs.append("$2");
         if (minor >= 'a') {
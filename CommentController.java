@@ -45,6 +45,21 @@ public class CommentController {
         }
     }
 
+    @GetMapping(
+            path = "/api/comments/{commentId}/post",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponseDto<String> getCommentPostId(@PathVariable String commentId) {
+        logger.info("Received request to fetch post ID for commentId: {}", commentId);
+
+        try {
+            return commentService.getCommentPostId(commentId);
+        } catch (Exception e) {
+            logger.error("Error occurred while fetching post ID for commentId: {}. Error: {}", commentId, e.getMessage(), e);
+            throw e;
+        }
+    }
+
     @GetMapping(
             path = "/api/posts/{postId}/comments",
             produces = MediaType.APPLICATION_JSON_VALUE
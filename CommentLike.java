@@ -16,7 +16,9 @@ import java.util.UUID;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "comment_likes")
+@Table(name = "comment_likes", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_comment_likes_comment_user", columnNames = {"comment_id", "user_id"})
+})
 public class CommentLike {
 
     @Id
@@ -8,6 +8,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Map;
+
 @RestController
 public class CommentLikeController {
 
@@ -63,4 +66,20 @@ public class CommentLikeController {
         }
     }
 
+    @PostMapping(
+            path = "/api/comments/likes/batch",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponseDto<Map<String, Integer>> getNumberOfLikesOnComments(@RequestBody List<String> commentIds) {
+        logger.info("Request to get number of likes for {} comments", commentIds == null ? 0 : commentIds.size());
+
+        try {
+            return commentLikeService.getNumberOfLikesOnComments(commentIds);
+        } catch (Exception e) {
+            logger.error("Error getting number of likes for comment batch", e);
+            throw e;
+        }
+    }
+
 }
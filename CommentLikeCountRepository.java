@@ -0,0 +1,33 @@
+package mini_twitter.like_service.repository;
+
+import mini_twitter.like_service.entity.CommentLikeCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface CommentLikeCountRepository extends JpaRepository<CommentLikeCount, String> {
+
+    @Modifying
+    @Query(value = "INSERT INTO comment_like_counts (comment_id, like_count) VALUES (:commentId, 1) " +
+            "ON DUPLICATE KEY UPDATE like_count = like_count + 1", nativeQuery = true)
+    void increment(@Param("commentId") String commentId);
+
+    @Modifying
+    @Query(value = "UPDATE comment_like_counts SET like_count = like_count - 1 " +
+            "WHERE comment_id = :commentId AND like_count > 0", nativeQuery = true)
+    void decrement(@Param("commentId") String commentId);
+
+    // Recomputes every counter from comment_likes in one statement
+    @Modifying
+    @Query(value = "INSERT INTO comment_like_counts (comment_id, like_count) " +
+            "SELECT * FROM (SELECT comment_id, COUNT(*) AS cnt FROM comment_likes GROUP BY comment_id) AS actual " +
+            "ON DUPLICATE KEY UPDATE like_count = actual.cnt", nativeQuery = true)
+    int recomputeAll();
+
+    @Modifying
+    @Query(value = "UPDATE comment_like_counts c SET c.like_count = 0 WHERE c.like_count <> 0 " +
+            "AND NOT EXISTS (SELECT 1 FROM comment_likes l WHERE l.comment_id = c.comment_id)", nativeQuery = true)
+    int zeroUnliked();
+
+}
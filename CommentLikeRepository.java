@@ -2,6 +2,9 @@ package mini_twitter.like_service.repository;
 
 import mini_twitter.like_service.entity.CommentLike;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
@@ -11,4 +14,17 @@ public interface CommentLikeRepository extends JpaRepository<CommentLike, String
 
     int countByCommentId(String commentId);
 
+    // Returns 1 when the like was added, 0 when it already existed. A duplicate on uk_comment_likes_comment_user
+    // becomes a no-op update, any other failure still throws. The 0 relies on useAffectedRows, see
+    // application.properties: by default Connector/J reports found rows and the no-op counts as 1
+    @Modifying
+    @Query(value = "INSERT INTO comment_likes (id, comment_id, user_id, created_at) " +
+            "VALUES (:id, :commentId, :userId, NOW()) ON DUPLICATE KEY UPDATE id = id", nativeQuery = true)
+    int insertIfAbsent(@Param("id") String id, @Param("commentId") String commentId, @Param("userId") String userId);
+
+    // Returns the number of likes removed, 0 when the user had not liked the comment
+    @Modifying
+    @Query("DELETE FROM CommentLike l WHERE l.commentId = :commentId AND l.userId = :userId")
+    int deleteByCommentIdAndUserId(@Param("commentId") String commentId, @Param("userId") String userId);
+
 }
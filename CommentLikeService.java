@@ -3,22 +3,32 @@ package mini_twitter.like_service.service;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import mini_twitter.like_service.dto.WebResponseDto;
-import mini_twitter.like_service.entity.CommentLike;
+import mini_twitter.like_service.repository.CommentLikeCountRepository;
 import mini_twitter.like_service.repository.CommentLikeRepository;
 import mini_twitter.like_service.webclient.UserServiceClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.Optional;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 public class CommentLikeService {
 
+    private static final int MAX_BATCH_SIZE = 500;
+
     @Autowired
     private CommentLikeRepository commentLikeRepository;
 
+    @Autowired
+    private CommentLikeCountRepository commentLikeCountRepository;
+
+    @Autowired
+    private EngagementSketches engagementSketches;
+
     @Autowired
     private UserServiceClient userServiceClient;
 
@@ -28,17 +38,13 @@ public class CommentLikeService {
 
         String userId = userServiceClient.getUserIdFromToken(token);
 
-        Optional<CommentLike> existingLike = commentLikeRepository.findByCommentIdAndUserId(commentId, userId);
-        if (existingLike.isPresent()) {
+        int inserted = commentLikeRepository.insertIfAbsent(UUID.randomUUID().toString(), commentId, userId);
+        if (inserted == 0) {
             log.warn("User ID: {} already liked comment ID: {}", userId, commentId);
             return WebResponseDto.<String>builder().errors("You have already liked this comment.").build();
         }
-
-        CommentLike commentLike = new CommentLike();
-        commentLike.setId(UUID.randomUUID().toString());
-        commentLike.setCommentId(commentId);
-        commentLike.setUserId(userId);
-        commentLikeRepository.save(commentLike);
+        commentLikeCountRepository.increment(commentId);
+        engagementSketches.onCommentEngagement(commentId, userId);
 
         log.info("User ID: {} successfully liked comment ID: {}", userId, commentId);
         return WebResponseDto.<String>builder().data("Comment liked successfully.").build();
@@ -50,13 +56,12 @@ public class CommentLikeService {
 
         String userId = userServiceClient.getUserIdFromToken(token);
 
-        Optional<CommentLike> existingLike = commentLikeRepository.findByCommentIdAndUserId(commentId, userId);
-        if (existingLike.isEmpty()) {
+        int deleted = commentLikeRepository.deleteByCommentIdAndUserId(commentId, userId);
+        if (deleted == 0) {
             log.warn("User ID: {} has not liked comment ID: {}", userId, commentId);
             return WebResponseDto.<String>builder().errors("You have not liked this comment.").build();
         }
-
-        commentLikeRepository.delete(existingLike.get());
+        commentLikeCountRepository.decrement(commentId);
 
         log.info("User ID: {} successfully unliked comment ID: {}", userId, commentId);
         return WebResponseDto.<String>builder().data("Comment unliked successfully.").build();
@@ -64,9 +69,31 @@ public class CommentLikeService {
 
     public WebResponseDto<Integer> getNumberOfLikesOnComment(String commentId) {
         log.info("Fetching like count for comment ID: {}", commentId);
-        int likeCount = commentLikeRepository.countByCommentId(commentId);
+        int likeCount = commentLikeCountRepository.findById(commentId)
+                .map(count -> (int) count.getLikeCount())
+                .orElse(0);
         log.info("Found {} likes for comment ID: {}", likeCount, commentId);
         return WebResponseDto.<Integer>builder().data(likeCount).build();
     }
 
+    // Like counts for many comments in one primary-key lookup; comments without likes map to 0
+    public WebResponseDto<Map<String, Integer>> getNumberOfLikesOnComments(List<String> commentIds) {
+        log.info("Fetching like counts for {} comments", commentIds == null ? 0 : commentIds.size());
+
+        if (commentIds == null || commentIds.isEmpty() || commentIds.size() > MAX_BATCH_SIZE) {
+            log.warn("Rejected like count batch of {} comments", commentIds == null ? 0 : commentIds.size());
+            return WebResponseDto.<Map<String, Integer>>builder()
+                    .errors("Between 1 and " + MAX_BATCH_SIZE + " comment IDs are required.")
+                    .build();
+        }
+
+        Map<String, Integer> counts = commentIds.stream()
+                .distinct()
+                .collect(Collectors.toMap(id -> id, id -> 0));
+        commentLikeCountRepository.findAllById(counts.keySet())
+                .forEach(count -> counts.put(count.getCommentId(), (int) count.getLikeCount()));
+
+        return WebResponseDto.<Map<String, Integer>>builder().data(counts).build();
+    }
+
 }
@@ -7,6 +7,8 @@ import mini_twitter.comment_service.dto.CommentResponseDto;
 import mini_twitter.comment_service.dto.WebResponseDto;
 import mini_twitter.comment_service.entity.Comment;
 import mini_twitter.comment_service.repository.CommentRepository;
+import mini_twitter.comment_service.webclient.EngagementClient;
+import mini_twitter.comment_service.webclient.PostChangeNotifier;
 import mini_twitter.comment_service.webclient.UserServiceClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,6 +36,12 @@ public class CommentService {
     @Autowired
     private UserServiceClient userServiceClient;
 
+    @Autowired
+    private EngagementClient engagementClient;
+
+    @Autowired
+    private PostChangeNotifier postChangeNotifier;
+
     @Transactional
     public WebResponseDto<CommentResponseDto> createComment(String token, String postId, CommentRequestDto request) {
         logger.info("Received request to create a comment for postId: {}, with request body: {}", postId, request);
@@ -75,6 +83,8 @@ public class CommentService {
         try {
             commentRepository.save(comment);
             logger.info("Comment successfully created for postId: {} by userId: {}. CommentId: {}", postId, userId, comment.getId());
+            engagementClient.commentCreated(postId, token);
+            postChangeNotifier.postChanged(postId);
         } catch (Exception e) {
             logger.error("Failed to save comment for postId: {} by userId: {}. Error: {}", postId, userId, e.getMessage());
             return WebResponseDto.<CommentResponseDto>builder()
@@ -114,6 +124,7 @@ public class CommentService {
             // Check if the comment belongs to the specified post and the user is the comment owner
             if (comment.getPostId().equals(postId) && comment.getUserId().equals(userId)) {
                 commentRepository.delete(comment);
+                postChangeNotifier.postChanged(postId);
                 logger.info("Comment ID: {} deleted successfully from post ID: {} by user ID: {}", commentId, postId, userId);
                 return WebResponseDto.<String>builder()
                         .data("Comment deleted successfully.")
@@ -162,6 +173,14 @@ public class CommentService {
                 .build();
     }
     
+    public WebResponseDto<String> getCommentPostId(String commentId) {
+        logger.info("Fetching post ID for commentId: {}", commentId);
+
+        return commentRepository.findById(commentId)
+                .map(comment -> WebResponseDto.<String>builder().data(comment.getPostId()).build())
+                .orElseGet(() -> WebResponseDto.<String>builder().errors("Comment not found.").build());
+    }
+
     private CommentResponseDto toCommentResponse(Comment comment) {
         return CommentResponseDto.builder()
                 .id(comment.getId())
@@ -10,6 +10,7 @@ import org.springframework.stereotype.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 
@@ -26,25 +27,28 @@ public class CommentServiceClient {
     }
 
     public List<CommentResponseDto> getCommentsByPostId(String postId) {
-        String url = "/" + postId + "/comments";
-
         try {
-            logger.info("Fetching comments for postId: {}", postId);
-
-            WebResponseDto<List<CommentResponseDto>> response = webClient.method(HttpMethod.GET)
-                    .uri(url)
-                    .accept(MediaType.APPLICATION_JSON)
-                    .retrieve()
-                    .bodyToMono(new ParameterizedTypeReference<WebResponseDto<List<CommentResponseDto>>>() {})
-                    .block();
-
-            return handleResponse(response, postId);
+            return getCommentsByPostIdAsync(postId).block();
         } catch (Exception e) {
             logger.error("Error fetching comments for postId: {}", postId, e);
             throw new RuntimeException("Failed to get comments for post", e);
         }
     }
 
+    public Mono<List<CommentResponseDto>> getCommentsByPostIdAsync(String postId) {
+        String url = "/" + postId + "/comments";
+
+        logger.info("Fetching comments for postId: {}", postId);
+
+        return webClient.method(HttpMethod.GET)
+                .uri(url)
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<WebResponseDto<List<CommentResponseDto>>>() {})
+                .map(response -> handleResponse(response, postId))
+                .switchIfEmpty(Mono.fromSupplier(() -> handleResponse(null, postId)));
+    }
+
     private List<CommentResponseDto> handleResponse(WebResponseDto<List<CommentResponseDto>> response, String postId) {
         if (response == null || response.getData() == null) {
             logger.error("Null response or no comments found for postId: {}", postId);
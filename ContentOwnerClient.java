@@ -0,0 +1,89 @@
+package mini_twitter.like_service.webclient;
+
+import mini_twitter.like_service.dto.WebResponseDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Resolves which post a comment belongs to (comment-service) and who authored a post (post-service).
+ * Both mappings never change once created, so resolved values are kept in bounded LRU maps.
+ */
+@Component
+public class ContentOwnerClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContentOwnerClient.class);
+    private static final String POST_SERVICE_URL = "http://localhost:8083/api/posts";
+    private static final String COMMENT_SERVICE_URL = "http://localhost:8084/api/comments";
+    private static final Duration TIMEOUT = Duration.ofSeconds(2);
+
+    private final WebClient postServiceClient;
+    private final WebClient commentServiceClient;
+    private final Map<String, String> authorsByPost;
+    private final Map<String, String> postsByComment;
+
+    @Autowired
+    public ContentOwnerClient(WebClient.Builder webClientBuilder,
+                              @Value("${likes.owner-cache.max-entries:50000}") int maxEntries) {
+        this.postServiceClient = webClientBuilder.baseUrl(POST_SERVICE_URL).build();
+        this.commentServiceClient = webClientBuilder.baseUrl(COMMENT_SERVICE_URL).build();
+        this.authorsByPost = lruMap(maxEntries);
+        this.postsByComment = lruMap(maxEntries);
+    }
+
+    public Mono<String> getPostAuthorAsync(String postId) {
+        String cached = authorsByPost.get(postId);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+
+        return fetch(postServiceClient, "/{id}/author", postId)
+                .doOnNext(authorId -> authorsByPost.put(postId, authorId));
+    }
+
+    public Mono<String> getCommentPostIdAsync(String commentId) {
+        String cached = postsByComment.get(commentId);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+
+        return fetch(commentServiceClient, "/{id}/post", commentId)
+                .doOnNext(postId -> postsByComment.put(commentId, postId));
+    }
+
+    private Mono<String> fetch(WebClient client, String path, String id) {
+        return client.get()
+                .uri(path, id)
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<WebResponseDto<String>>() {})
+                .timeout(TIMEOUT)
+                .flatMap(response -> {
+                    if (response.getData() == null) {
+                        logger.warn("No owner returned for {}: {}", id, response.getErrors());
+                        return Mono.empty();
+                    }
+                    return Mono.just(response.getData());
+                });
+    }
+
+    private static Map<String, String> lruMap(int maxEntries) {
+        return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+}
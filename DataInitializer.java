@@ -5,10 +5,12 @@ import mini_twitter.like_service.entity.PostLike;
 import mini_twitter.like_service.entity.CommentLike;
 import mini_twitter.like_service.repository.PostLikeRepository;
 import mini_twitter.like_service.repository.CommentLikeRepository;
+import mini_twitter.like_service.service.LikeCountReconciler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -27,7 +29,12 @@ public class DataInitializer {
     @Autowired
     private CommentLikeRepository commentLikeRepository;
 
+    @Autowired
+    private LikeCountReconciler likeCountReconciler;
+
+    // seed.mode=none skips the demo rows, e.g. when the database was loaded by SyntheticDataGenerator
     @Bean
+    @ConditionalOnProperty(name = "seed.mode", havingValue = "demo", matchIfMissing = true)
     public CommandLineRunner initLikeData() {
         return args -> {
             try {
@@ -104,6 +111,9 @@ public class DataInitializer {
                         now
                 ));
 
+                // Rows above bypass the services, so bring the counters in line with them
+                likeCountReconciler.reconcile();
+
                 logger.info("Like data initialized successfully");
             } catch (Exception e) {
                 logger.error("Failed to initialize like data", e);
@@ -0,0 +1,56 @@
+package mini_twitter.comment_service.webclient;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+
+/**
+ * Reports new comments to like-service, which keeps the per-author unique engagement sketches.
+ * Delivery is best effort and happens after the comment commits; a lost report only makes the
+ * approximate engagement count slightly lower.
+ */
+@Component
+public class EngagementClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(EngagementClient.class);
+    private static final String BASE_URL = "http://localhost:8085/api/internal/engagement";
+    private static final Duration TIMEOUT = Duration.ofSeconds(2);
+
+    private final WebClient webClient;
+
+    @Autowired
+    public EngagementClient(WebClient.Builder webClientBuilder) {
+        this.webClient = webClientBuilder.baseUrl(BASE_URL).build();
+    }
+
+    // The commenter's token is forwarded so like-service can verify who engaged
+    public void commentCreated(String postId, String token) {
+        Runnable send = () -> webClient.post()
+                .uri("/posts/{postId}/comments", postId)
+                .header("X-API-TOKEN", token)
+                .retrieve()
+                .toBodilessEntity()
+                .timeout(TIMEOUT)
+                .subscribe(
+                        response -> logger.debug("Comment engagement on post ID: {} delivered", postId),
+                        e -> logger.warn("Failed to deliver comment engagement on post ID: {}: {}", postId, e.getMessage())
+                );
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send.run();
+                }
+            });
+        } else {
+            send.run();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package mini_twitter.like_service.controller;
+
+import mini_twitter.like_service.dto.WebResponseDto;
+import mini_twitter.like_service.service.EngagementSketches;
+import mini_twitter.like_service.webclient.UserServiceClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+public class EngagementController {
+
+    private static final Logger logger = LoggerFactory.getLogger(EngagementController.class);
+
+    @Autowired
+    private EngagementSketches engagementSketches;
+
+    @Autowired
+    private UserServiceClient userServiceClient;
+
+    @GetMapping(
+            path = "/api/users/{userId}/engagement",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponseDto<Long> getUniqueEngagement(@PathVariable String userId,
+                                                    @RequestParam(defaultValue = "7") int days) {
+        logger.info("Request to get unique engagement for userId: {} over {} days", userId, days);
+
+        if (days < 1 || days > engagementSketches.getRetentionDays()) {
+            return WebResponseDto.<Long>builder()
+                    .errors("Days must be between 1 and " + engagementSketches.getRetentionDays() + ".")
+                    .build();
+        }
+
+        return WebResponseDto.<Long>builder().data(engagementSketches.estimate(userId, days)).build();
+    }
+
+    // Called by comment-service after a comment is created; comment rows live in its own database.
+    // The commenter's token is forwarded and resolved here, so callers cannot record engagement for others
+    @PostMapping(
+            path = "/api/internal/engagement/posts/{postId}/comments",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponseDto<String> recordComment(@PathVariable String postId,
+                                                @RequestHeader("X-API-TOKEN") String token) {
+        String userId;
+        try {
+            userId = userServiceClient.getUserIdFromToken(token);
+        } catch (Exception e) {
+            logger.warn("Rejecting comment engagement on post ID: {}: {}", postId, e.getMessage());
+            return WebResponseDto.<String>builder().errors("Invalid token.").build();
+        }
+        logger.info("Recording comment engagement on post ID: {} by user ID: {}", postId, userId);
+
+        engagementSketches.onPostEngagement(postId, userId);
+        return WebResponseDto.<String>builder().data("OK").build();
+    }
+
+}
@@ -0,0 +1,33 @@
+package mini_twitter.like_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "engagement_sketches", indexes = {
+        @Index(name = "idx_engagement_sketches_day", columnList = "epoch_day")
+})
+public class EngagementSketch {
+
+    // "<epochDay>:<authorId>"
+    @Id
+    private String id;
+
+    @Column(name = "author_id", nullable = false)
+    private String authorId;
+
+    @Column(name = "epoch_day", nullable = false)
+    private long epochDay;
+
+    // HyperLogLog registers, one byte each
+    @Column(nullable = false, length = 2048)
+    private byte[] registers;
+
+}
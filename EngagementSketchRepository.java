@@ -0,0 +1,21 @@
+package mini_twitter.like_service.repository;
+
+import jakarta.transaction.Transactional;
+import mini_twitter.like_service.entity.EngagementSketch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface EngagementSketchRepository extends JpaRepository<EngagementSketch, String> {
+
+    List<EngagementSketch> findByEpochDayGreaterThanEqual(long epochDay);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM EngagementSketch s WHERE s.epochDay < :epochDay")
+    int deleteOlderThan(@Param("epochDay") long epochDay);
+
+}
@@ -0,0 +1,174 @@
+package mini_twitter.like_service.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import mini_twitter.like_service.entity.EngagementSketch;
+import mini_twitter.like_service.repository.EngagementSketchRepository;
+import mini_twitter.like_service.webclient.ContentOwnerClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Approximate "unique users who liked or commented on this author's posts" per day.
+ * <p>
+ * Each author gets one {@link HyperLogLog} per UTC day, kept for {@code likes.engagement.retention-days}
+ * (30 by default), so an author costs at most 30 x 2 KB regardless of traffic. Windows are answered by
+ * merging the daily sketches. Engagement is recorded after the like commits; the post author (and, for
+ * comment likes, the post) is resolved asynchronously so the like request never waits on other services.
+ * <p>
+ * Comments live in comment-service's database, so the sketches cannot be rebuilt from local rows.
+ * Instead, changed sketches are written to engagement_sketches every
+ * {@code likes.engagement.persist-interval-ms} and on shutdown, and the retained window is loaded back
+ * at startup; a crash loses at most the engagement of one interval.
+ */
+@Component
+public class EngagementSketches {
+
+    private static final Logger logger = LoggerFactory.getLogger(EngagementSketches.class);
+
+    @Autowired
+    private ContentOwnerClient contentOwnerClient;
+
+    @Autowired
+    private EngagementSketchRepository engagementSketchRepository;
+
+    @Value("${likes.engagement.retention-days:30}")
+    private int retentionDays;
+
+    // authorId -> epoch day -> sketch
+    private final Map<String, Map<Long, HyperLogLog>> sketches = new ConcurrentHashMap<>();
+
+    // Ids of the sketches changed since they were last persisted
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void load() {
+        List<EngagementSketch> stored = engagementSketchRepository.findByEpochDayGreaterThanEqual(oldestRetainedDay());
+        for (EngagementSketch sketch : stored) {
+            sketches.computeIfAbsent(sketch.getAuthorId(), id -> new ConcurrentHashMap<>())
+                    .put(sketch.getEpochDay(), new HyperLogLog(sketch.getRegisters()));
+        }
+        logger.info("Loaded {} engagement sketches for {} authors", stored.size(), sketches.size());
+    }
+
+    public void onPostEngagement(String postId, String userId) {
+        afterCommit(() -> record(contentOwnerClient.getPostAuthorAsync(postId), userId, postId));
+    }
+
+    public void onCommentEngagement(String commentId, String userId) {
+        afterCommit(() -> record(contentOwnerClient.getCommentPostIdAsync(commentId)
+                .flatMap(contentOwnerClient::getPostAuthorAsync), userId, commentId));
+    }
+
+    /**
+     * @return the estimated number of distinct users engaging with the author's posts over the last
+     * {@code days} days, today included
+     */
+    public long estimate(String authorId, int days) {
+        Map<Long, HyperLogLog> daily = sketches.get(authorId);
+        if (daily == null) {
+            return 0;
+        }
+
+        long today = today();
+        HyperLogLog window = new HyperLogLog();
+        daily.forEach((day, sketch) -> {
+            if (day > today - days) {
+                sketch.mergeInto(window);
+            }
+        });
+        return window.estimate();
+    }
+
+    public int getRetentionDays() {
+        return retentionDays;
+    }
+
+    @Scheduled(cron = "${likes.engagement.prune-cron:0 10 0 * * *}")
+    public void prune() {
+        long oldest = oldestRetainedDay();
+        sketches.values().forEach(daily -> daily.keySet().removeIf(day -> day < oldest));
+        sketches.values().removeIf(Map::isEmpty);
+        int deleted = engagementSketchRepository.deleteOlderThan(oldest);
+        logger.info("Pruned engagement sketches older than {} days ({} stored rows), {} authors tracked",
+                retentionDays, deleted, sketches.size());
+    }
+
+    @Scheduled(fixedDelayString = "${likes.engagement.persist-interval-ms:60000}")
+    @PreDestroy
+    public void persist() {
+        List<EngagementSketch> changed = new ArrayList<>();
+        for (String id : dirty) {
+            // Cleared before the registers are copied, so a concurrent add marks the sketch again
+            dirty.remove(id);
+            int separator = id.indexOf(':');
+            long day = Long.parseLong(id.substring(0, separator));
+            String authorId = id.substring(separator + 1);
+            Map<Long, HyperLogLog> daily = sketches.get(authorId);
+            HyperLogLog sketch = daily == null ? null : daily.get(day);
+            if (sketch != null) {
+                changed.add(new EngagementSketch(id, authorId, day, sketch.toBytes()));
+            }
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
+
+        try {
+            engagementSketchRepository.saveAll(changed);
+            logger.debug("Persisted {} engagement sketches", changed.size());
+        } catch (Exception e) {
+            changed.forEach(sketch -> dirty.add(sketch.getId()));
+            logger.error("Failed to persist {} engagement sketches, will retry: {}", changed.size(), e.getMessage());
+        }
+    }
+
+    private void record(Mono<String> authorId, String userId, String sourceId) {
+        authorId.subscribe(
+                author -> {
+                    long day = today();
+                    sketches.computeIfAbsent(author, id -> new ConcurrentHashMap<>())
+                            .computeIfAbsent(day, key -> new HyperLogLog())
+                            .add(userId);
+                    dirty.add(day + ":" + author);
+                },
+                e -> logger.warn("Dropping engagement for {}, owner lookup failed: {}", sourceId, e.getMessage())
+        );
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private long oldestRetainedDay() {
+        return today() - retentionDays + 1;
+    }
+
+    private static long today() {
+        return LocalDate.now(ZoneOffset.UTC).toEpochDay();
+    }
+}
@@ -17,6 +17,10 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "follows", uniqueConstraints = {
         @UniqueConstraint(columnNames = {"user_id", "follower_id"})
+}, indexes = {
+        // Covering indexes for the paginated followers / following listings
+        @Index(name = "idx_follows_user_created", columnList = "user_id, created_at, follower_id"),
+        @Index(name = "idx_follows_follower_created", columnList = "follower_id, created_at, user_id")
 })
 public class Follow {
 
@@ -1,8 +1,11 @@
 package mini_twitter.follow_service.controller;
 
-import mini_twitter.follow_service.dto.UserResponseDto;
+import mini_twitter.follow_service.dto.FollowPageResponseDto;
+import mini_twitter.follow_service.dto.FollowStatsDto;
+import mini_twitter.follow_service.dto.SuggestionDto;
 import mini_twitter.follow_service.dto.WebResponseDto;
 import mini_twitter.follow_service.service.FollowService;
+import mini_twitter.follow_service.service.SuggestionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,6 +13,7 @@ import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 public class FollowController {
@@ -19,6 +23,9 @@ public class FollowController {
     @Autowired
     private FollowService followService;
 
+    @Autowired
+    private SuggestionService suggestionService;
+
     @PostMapping(
             path = "/api/users/{userId}/follow",
             produces = MediaType.APPLICATION_JSON_VALUE
@@ -57,11 +64,14 @@ public class FollowController {
             path = "/api/users/{userId}/followers",
             produces = MediaType.APPLICATION_JSON_VALUE
     )
-    public WebResponseDto<List<UserResponseDto>> getFollowers(@PathVariable String userId) {
+    public WebResponseDto<FollowPageResponseDto> getFollowers(@PathVariable String userId,
+                                                              @RequestParam(required = false) Integer limit,
+                                                              @RequestParam(required = false) String after,
+                                                              @RequestParam(defaultValue = "true") boolean expand) {
         logger.info("Request to fetch followers for user ID: {}", userId);
 
         try {
-            WebResponseDto<List<UserResponseDto>> response = followService.getFollowers(userId);
+            WebResponseDto<FollowPageResponseDto> response = followService.getFollowers(userId, limit, after, expand);
             logger.info("Successfully fetched followers for user ID: {}", userId);
             return response;
         } catch (Exception e) {
@@ -74,11 +84,14 @@ public class FollowController {
             path = "/api/users/{userId}/following",
             produces = MediaType.APPLICATION_JSON_VALUE
     )
-    public WebResponseDto<List<UserResponseDto>> getFollowing(@PathVariable String userId) {
+    public WebResponseDto<FollowPageResponseDto> getFollowing(@PathVariable String userId,
+                                                              @RequestParam(required = false) Integer limit,
+                                                              @RequestParam(required = false) String after,
+                                                              @RequestParam(defaultValue = "true") boolean expand) {
         logger.info("Request to fetch following for user ID: {}", userId);
 
         try {
-            WebResponseDto<List<UserResponseDto>> response = followService.getFollowing(userId);
+            WebResponseDto<FollowPageResponseDto> response = followService.getFollowing(userId, limit, after, expand);
             logger.info("Successfully fetched following for user ID: {}", userId);
             return response;
         } catch (Exception e) {
@@ -87,4 +100,86 @@ public class FollowController {
         }
     }
 
+    @GetMapping(
+            path = "/api/users/{userId}/followers/ids",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponseDto<List<String>> getFollowerIds(@PathVariable String userId) {
+        logger.info("Request to fetch follower IDs for user ID: {}", userId);
+        return followService.getFollowerIds(userId);
+    }
+
+    @GetMapping(
+            path = "/api/users/{userId}/following/ids",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponseDto<List<String>> getFollowingIds(@PathVariable String userId) {
+        logger.info("Request to fetch following IDs for user ID: {}", userId);
+        return followService.getFollowingIds(userId);
+    }
+
+    @GetMapping(
+            path = "/api/users/{userId}/follow-stats",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponseDto<FollowStatsDto> getFollowStats(@PathVariable String userId) {
+        logger.info("Request to fetch follow stats for user ID: {}", userId);
+
+        try {
+            return followService.getFollowStats(userId);
+        } catch (Exception e) {
+            logger.error("Error fetching follow stats for user ID: {}", userId, e);
+            throw e;
+        }
+    }
+
+    @PostMapping(
+            path = "/api/users/follow-stats/batch",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponseDto<Map<String, FollowStatsDto>> getFollowStats(@RequestBody List<String> userIds) {
+        logger.info("Request to fetch follow stats for {} users", userIds == null ? 0 : userIds.size());
+
+        try {
+            return followService.getFollowStats(userIds);
+        } catch (Exception e) {
+            logger.error("Error fetching follow stats for user batch", e);
+            throw e;
+        }
+    }
+
+    @PostMapping(
+            path = "/api/users/relationships",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponseDto<Map<String, Integer>> getRelationships(@RequestHeader("X-API-TOKEN") String token,
+                                                                 @RequestBody List<String> userIds) {
+        logger.info("Request to fetch relationships for {} users with token: {}", userIds == null ? 0 : userIds.size(), token);
+
+        try {
+            return followService.getRelationships(token, userIds);
+        } catch (Exception e) {
+            logger.error("Error fetching relationships for user batch", e);
+            throw e;
+        }
+    }
+
+    @GetMapping(
+            path = "/api/users/{userId}/suggestions",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponseDto<List<SuggestionDto>> getSuggestions(@PathVariable String userId,
+                                                              @RequestParam(required = false) Integer limit) {
+        logger.info("Request to fetch follow suggestions for user ID: {}", userId);
+
+        try {
+            return suggestionService.getSuggestions(userId, limit);
+        } catch (Exception e) {
+            logger.error("Error fetching follow suggestions for user ID: {}", userId, e);
+            throw e;
+        }
+    }
+
 }
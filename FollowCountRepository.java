@@ -0,0 +1,33 @@
+package mini_twitter.follow_service.repository;
+
+import mini_twitter.follow_service.entity.FollowCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface FollowCountRepository extends JpaRepository<FollowCount, String> {
+
+    @Modifying
+    @Query(value = "INSERT INTO follow_counts (user_id, follower_count, following_count) VALUES (:userId, 1, 0) " +
+            "ON DUPLICATE KEY UPDATE follower_count = follower_count + 1", nativeQuery = true)
+    void incrementFollowers(@Param("userId") String userId);
+
+    @Modifying
+    @Query(value = "UPDATE follow_counts SET follower_count = follower_count - 1 " +
+            "WHERE user_id = :userId AND follower_count > 0", nativeQuery = true)
+    void decrementFollowers(@Param("userId") String userId);
+
+    @Modifying
+    @Query(value = "INSERT INTO follow_counts (user_id, follower_count, following_count) VALUES (:userId, 0, 1) " +
+            "ON DUPLICATE KEY UPDATE following_count = following_count + 1", nativeQuery = true)
+    void incrementFollowing(@Param("userId") String userId);
+
+    @Modifying
+    @Query(value = "UPDATE follow_counts SET following_count = following_count - 1 " +
+            "WHERE user_id = :userId AND following_count > 0", nativeQuery = true)
+    void decrementFollowing(@Param("userId") String userId);
+
+}
@@ -0,0 +1,56 @@
+package mini_twitter.follow_service.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor over follow edges ordered by {@code (createdAt DESC, userId DESC)}, where userId
+ * is the follower or followed user being listed. Clients get it back as {@code nextCursor} and pass it
+ * unchanged; its encoding is not part of the API.
+ */
+public class FollowCursor {
+
+    private final LocalDateTime createdAt;
+
+    private final String userId;
+
+    private FollowCursor(LocalDateTime createdAt, String userId) {
+        this.createdAt = createdAt;
+        this.userId = userId;
+    }
+
+    public static FollowCursor of(LocalDateTime createdAt, String userId) {
+        return new FollowCursor(createdAt, userId);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the cursor was not produced by {@link #encode()}
+     */
+    public static FollowCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new FollowCursor(LocalDateTime.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + userId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+}
@@ -0,0 +1,41 @@
+package mini_twitter.follow_service.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FollowCursorTests {
+
+	private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 5, 17, 10, 15, 30, 123_000_000);
+
+	@Test
+	void roundTrips() {
+		FollowCursor cursor = FollowCursor.decode(FollowCursor.of(CREATED_AT, "user-7").encode());
+
+		assertEquals(CREATED_AT, cursor.getCreatedAt());
+		assertEquals("user-7", cursor.getUserId());
+	}
+
+	@Test
+	void keepsSeparatorsInUserId() {
+		FollowCursor cursor = FollowCursor.decode(FollowCursor.of(CREATED_AT, "a|b").encode());
+
+		assertEquals("a|b", cursor.getUserId());
+	}
+
+	@Test
+	void rejectsForeignCursors() {
+		assertThrows(IllegalArgumentException.class, () -> FollowCursor.decode("not base64!"));
+		assertThrows(IllegalArgumentException.class, () -> FollowCursor.decode(encode("no-separator")));
+		assertThrows(IllegalArgumentException.class, () -> FollowCursor.decode(encode("yesterday|user-7")));
+	}
+
+	private static String encode(String raw) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
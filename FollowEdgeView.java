@@ -0,0 +1,14 @@
+package mini_twitter.follow_service.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * One side of a follow edge plus its timestamp; selected straight from the covering follow indexes.
+ */
+public interface FollowEdgeView {
+
+    // The follower when listing followers, the followed user when listing following
+    String getUserId();
+
+    LocalDateTime getCreatedAt();
+}
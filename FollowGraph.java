@@ -0,0 +1,480 @@
+package mini_twitter.follow_service.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory follow graph so that follower / following / "does A follow B" lookups never reach MySQL.
+ * <p>
+ * User ids are mapped to dense ints. The bulk of the edges lives in two immutable compressed sparse
+ * row (CSR) structures: {@code forward} (follower -> followed users) and {@code reverse} (user ->
+ * followers), each an offsets array plus one sorted int array of neighbours. Follows and unfollows
+ * committed since the last compaction go into a small {@link Overlay} of added and removed edges on
+ * top of it. Once the overlay reaches {@code follows.graph.compact-threshold} edges it is frozen and
+ * merged into a new CSR in the background, while a fresh overlay takes new writes.
+ * <p>
+ * The graph is loaded from {@code follows} once the application is ready; until then
+ * {@link #isReady()} is false and callers use the database.
+ */
+@Component
+public class FollowGraph {
+
+    private static final Logger logger = LoggerFactory.getLogger(FollowGraph.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${follows.graph.compact-threshold:50000}")
+    private int compactThreshold;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> denseIds = new HashMap<>();
+
+    private String[] userIds = new String[1024];
+
+    private int userCount;
+
+    private Csr forward = Csr.EMPTY;
+
+    private Csr reverse = Csr.EMPTY;
+
+    // Being merged into forward/reverse by a compaction; null otherwise
+    private Overlay frozen;
+
+    private Overlay live = new Overlay();
+
+    // Follows/unfollows committed while the initial load scans the table
+    private List<Runnable> changesDuringLoad = new ArrayList<>();
+
+    // Set when the initial load failed; changes are then ignored since nothing reads the graph
+    private boolean loadFailed;
+
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        IntList followers = new IntList();
+        IntList followed = new IntList();
+
+        boolean scanned = false;
+        try {
+            // Nothing reads the dictionary before ready is set, and writers only queue until then
+            jdbcTemplate.query("SELECT follower_id, user_id FROM follows", rs -> {
+                followers.add(intern(rs.getString(1)));
+                followed.add(intern(rs.getString(2)));
+            });
+            scanned = true;
+        } catch (RuntimeException e) {
+            logger.error("Failed to load follow graph, follow lookups stay on the database", e);
+            return;
+        } finally {
+            if (!scanned) {
+                discardLoad();
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            forward = Csr.build(userCount, followers, followed);
+            reverse = Csr.build(userCount, followed, followers);
+
+            // Replayed in commit order; each change is a no-op if the scan already saw it
+            List<Runnable> queued = changesDuringLoad;
+            changesDuringLoad = null;
+            queued.forEach(Runnable::run);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        logger.info("Loaded follow graph with {} users and {} edges in {} ms",
+                userCount, followers.size(), System.currentTimeMillis() - start);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Drops the queued changes and the partial dictionary, so neither grows while the graph is unused
+    private void discardLoad() {
+        lock.writeLock().lock();
+        try {
+            changesDuringLoad = null;
+            loadFailed = true;
+            denseIds.clear();
+            userIds = new String[1024];
+            userCount = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void onFollowed(String userId, String followerId) {
+        afterCommit(() -> addEdge(followerId, userId));
+    }
+
+    public void onUnfollowed(String userId, String followerId) {
+        afterCommit(() -> removeEdge(followerId, userId));
+    }
+
+    public boolean isFollowing(String followerId, String userId) {
+        lock.readLock().lock();
+        try {
+            Integer follower = denseIds.get(followerId);
+            Integer user = denseIds.get(userId);
+            return follower != null && user != null && contains(follower, user);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<String> getFollowerIds(String userId) {
+        return neighbours(userId, false);
+    }
+
+    public List<String> getFollowingIds(String followerId) {
+        return neighbours(followerId, true);
+    }
+
+    /**
+     * Merges the overlay into a new CSR once it is large enough. Reads and writes continue during the
+     * merge; only swapping the overlays and installing the result take the write lock.
+     */
+    @Scheduled(fixedDelayString = "${follows.graph.compact-interval-ms:10000}")
+    public void compact() {
+        Overlay merging;
+        Csr baseForward;
+        int nodes;
+
+        lock.writeLock().lock();
+        try {
+            if (!ready || live.size < compactThreshold) {
+                return;
+            }
+            merging = live;
+            frozen = live;
+            live = new Overlay();
+            baseForward = forward;
+            nodes = userCount;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long start = System.currentTimeMillis();
+        IntList followers = new IntList();
+        IntList followed = new IntList();
+        for (int node = 0; node < nodes; node++) {
+            for (int target : merging.apply(node, baseForward.row(node), true)) {
+                followers.add(node);
+                followed.add(target);
+            }
+        }
+        Csr newForward = Csr.build(nodes, followers, followed);
+        Csr newReverse = Csr.build(nodes, followed, followers);
+
+        lock.writeLock().lock();
+        try {
+            forward = newForward;
+            reverse = newReverse;
+            frozen = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        logger.info("Compacted {} overlay edges into a follow graph of {} edges in {} ms",
+                merging.size, followers.size(), System.currentTimeMillis() - start);
+    }
+
+    private void addEdge(String followerId, String userId) {
+        lock.writeLock().lock();
+        try {
+            if (loadFailed) {
+                return;
+            }
+            if (changesDuringLoad != null) {
+                changesDuringLoad.add(() -> addEdge(followerId, userId));
+                return;
+            }
+
+            int follower = intern(followerId);
+            int user = intern(userId);
+            if (contains(follower, user)) {
+                return;
+            }
+            // Either undoes a removal of a base edge, or records a new one
+            if (!live.unremove(follower, user)) {
+                live.add(follower, user);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeEdge(String followerId, String userId) {
+        lock.writeLock().lock();
+        try {
+            if (loadFailed) {
+                return;
+            }
+            if (changesDuringLoad != null) {
+                changesDuringLoad.add(() -> removeEdge(followerId, userId));
+                return;
+            }
+
+            Integer follower = denseIds.get(followerId);
+            Integer user = denseIds.get(userId);
+            if (follower == null || user == null || !contains(follower, user)) {
+                return;
+            }
+            if (!live.unadd(follower, user)) {
+                live.remove(follower, user);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Caller holds the lock
+    private boolean contains(int follower, int user) {
+        Boolean state = live.state(follower, user);
+        if (state == null && frozen != null) {
+            state = frozen.state(follower, user);
+        }
+        return state != null ? state : forward.contains(follower, user);
+    }
+
+    private List<String> neighbours(String userId, boolean outgoing) {
+        lock.readLock().lock();
+        try {
+            Integer node = denseIds.get(userId);
+            if (node == null) {
+                return Collections.emptyList();
+            }
+
+            int[] row = (outgoing ? forward : reverse).row(node);
+            if (frozen != null) {
+                row = frozen.apply(node, row, outgoing);
+            }
+            row = live.apply(node, row, outgoing);
+
+            List<String> result = new ArrayList<>(row.length);
+            for (int neighbour : row) {
+                result.add(userIds[neighbour]);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Caller holds the write lock, or is the initial load
+    private int intern(String userId) {
+        Integer existing = denseIds.get(userId);
+        if (existing != null) {
+            return existing;
+        }
+        if (userCount == userIds.length) {
+            userIds = Arrays.copyOf(userIds, userCount * 2);
+        }
+        userIds[userCount] = userId;
+        denseIds.put(userId, userCount);
+        return userCount++;
+    }
+
+    private void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    /**
+     * Immutable compressed sparse row adjacency: the neighbours of node n are
+     * {@code targets[offsets[n] .. offsets[n + 1])}, sorted ascending.
+     */
+    private static final class Csr {
+
+        private static final Csr EMPTY = new Csr(new int[1], new int[0]);
+
+        private final int[] offsets;
+
+        private final int[] targets;
+
+        private Csr(int[] offsets, int[] targets) {
+            this.offsets = offsets;
+            this.targets = targets;
+        }
+
+        private static Csr build(int nodes, IntList sources, IntList destinations) {
+            int[] offsets = new int[nodes + 1];
+            for (int i = 0; i < sources.size(); i++) {
+                offsets[sources.get(i) + 1]++;
+            }
+            for (int node = 0; node < nodes; node++) {
+                offsets[node + 1] += offsets[node];
+            }
+
+            int[] targets = new int[sources.size()];
+            int[] next = Arrays.copyOf(offsets, nodes);
+            for (int i = 0; i < sources.size(); i++) {
+                targets[next[sources.get(i)]++] = destinations.get(i);
+            }
+            for (int node = 0; node < nodes; node++) {
+                Arrays.sort(targets, offsets[node], offsets[node + 1]);
+            }
+            return new Csr(offsets, targets);
+        }
+
+        private int[] row(int node) {
+            if (node + 1 >= offsets.length) {
+                return new int[0];
+            }
+            return Arrays.copyOfRange(targets, offsets[node], offsets[node + 1]);
+        }
+
+        private boolean contains(int node, int target) {
+            return node + 1 < offsets.length
+                    && Arrays.binarySearch(targets, offsets[node], offsets[node + 1], target) >= 0;
+        }
+    }
+
+    /**
+     * Edges added and removed relative to the layers below it. An edge is only ever added when the
+     * layers below do not have it, and only removed when they do.
+     */
+    private static final class Overlay {
+
+        private final Map<Integer, Set<Integer>> addedOut = new HashMap<>();
+
+        private final Map<Integer, Set<Integer>> addedIn = new HashMap<>();
+
+        private final Map<Integer, Set<Integer>> removedOut = new HashMap<>();
+
+        private final Map<Integer, Set<Integer>> removedIn = new HashMap<>();
+
+        private int size;
+
+        private Boolean state(int follower, int user) {
+            if (addedOut.getOrDefault(follower, Collections.emptySet()).contains(user)) {
+                return Boolean.TRUE;
+            }
+            if (removedOut.getOrDefault(follower, Collections.emptySet()).contains(user)) {
+                return Boolean.FALSE;
+            }
+            return null;
+        }
+
+        private void add(int follower, int user) {
+            link(addedOut, follower, user);
+            link(addedIn, user, follower);
+            size++;
+        }
+
+        private void remove(int follower, int user) {
+            link(removedOut, follower, user);
+            link(removedIn, user, follower);
+            size++;
+        }
+
+        private boolean unadd(int follower, int user) {
+            return unlink(addedOut, follower, user) && unlink(addedIn, user, follower);
+        }
+
+        private boolean unremove(int follower, int user) {
+            return unlink(removedOut, follower, user) && unlink(removedIn, user, follower);
+        }
+
+        // The row of the layers below with this overlay's changes for the node applied, still sorted
+        private int[] apply(int node, int[] row, boolean outgoing) {
+            Set<Integer> added = (outgoing ? addedOut : addedIn).get(node);
+            Set<Integer> removed = (outgoing ? removedOut : removedIn).get(node);
+            if (added == null && removed == null) {
+                return row;
+            }
+
+            IntList result = new IntList();
+            for (int neighbour : row) {
+                if (removed == null || !removed.contains(neighbour)) {
+                    result.add(neighbour);
+                }
+            }
+            if (added != null) {
+                added.forEach(result::add);
+            }
+            int[] merged = result.toArray();
+            Arrays.sort(merged);
+            return merged;
+        }
+
+        private static void link(Map<Integer, Set<Integer>> edges, int from, int to) {
+            edges.computeIfAbsent(from, key -> new HashSet<>()).add(to);
+        }
+
+        private boolean unlink(Map<Integer, Set<Integer>> edges, int from, int to) {
+            Set<Integer> targets = edges.get(from);
+            if (targets == null || !targets.remove(to)) {
+                return false;
+            }
+            if (targets.isEmpty()) {
+                edges.remove(from);
+            }
+            if (edges == addedOut || edges == removedOut) {
+                size--;
+            }
+            return true;
+        }
+    }
+
+    private static final class IntList {
+
+        private int[] values = new int[16];
+
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private int get(int index) {
+            return values[index];
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package mini_twitter.follow_service.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.ResultSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class FollowGraphTests {
+
+	private JdbcTemplate jdbcTemplate;
+
+	private FollowGraph graph;
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate = mock(JdbcTemplate.class);
+		graph = new FollowGraph();
+		ReflectionTestUtils.setField(graph, "jdbcTemplate", jdbcTemplate);
+		ReflectionTestUtils.setField(graph, "compactThreshold", 2);
+	}
+
+	@Test
+	void loadsEdgesFromTheTable() throws Exception {
+		// {follower, followed}
+		givenFollows(List.of(new String[]{"a", "b"}, new String[]{"a", "c"}, new String[]{"b", "c"}));
+		graph.load();
+
+		assertTrue(graph.isReady());
+		assertEquals(Set.of("b", "c"), following("a"));
+		assertEquals(Set.of("a", "b"), followers("c"));
+		assertTrue(graph.isFollowing("b", "c"));
+		assertFalse(graph.isFollowing("c", "b"));
+		assertEquals(Set.of(), following("unknown"));
+	}
+
+	@Test
+	void overlayAddsAndRemovesEdgesOnTopOfTheBase() throws Exception {
+		givenFollows(List.of(new String[]{"a", "b"}, new String[]{"a", "c"}));
+		graph.load();
+
+		graph.onFollowed("d", "a");
+		graph.onUnfollowed("b", "a");
+
+		assertEquals(Set.of("c", "d"), following("a"));
+		assertEquals(Set.of(), followers("b"));
+		assertEquals(Set.of("a"), followers("d"));
+		assertFalse(graph.isFollowing("a", "b"));
+
+		// Re-following a removed base edge undoes the removal
+		graph.onFollowed("b", "a");
+		assertEquals(Set.of("b", "c", "d"), following("a"));
+	}
+
+	@Test
+	void compactionKeepsTheMergedView() throws Exception {
+		givenFollows(List.of(new String[]{"a", "b"}, new String[]{"a", "c"}));
+		graph.load();
+		graph.onFollowed("d", "a");
+		graph.onUnfollowed("b", "a");
+
+		graph.compact();
+
+		assertEquals(Set.of("c", "d"), following("a"));
+		assertEquals(Set.of("a"), followers("d"));
+		assertEquals(Set.of(), followers("b"));
+
+		// Writes after the compaction land in a fresh overlay
+		graph.onFollowed("b", "c");
+		assertEquals(Set.of("c"), followers("b"));
+		assertEquals(Set.of("c", "d"), following("a"));
+	}
+
+	@Test
+	void failedLoadStaysNotReadyAndDropsQueuedChanges() {
+		doThrow(new DataAccessResourceFailureException("database down"))
+				.when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+
+		graph.load();
+		graph.onFollowed("b", "a");
+
+		assertFalse(graph.isReady());
+		assertNull(ReflectionTestUtils.getField(graph, "changesDuringLoad"));
+		assertEquals(Set.of(), following("a"));
+	}
+
+	private void givenFollows(List<String[]> edges) throws Exception {
+		doAnswer(invocation -> {
+			RowCallbackHandler handler = invocation.getArgument(1);
+			for (String[] edge : edges) {
+				ResultSet row = mock(ResultSet.class);
+				when(row.getString(1)).thenReturn(edge[0]);
+				when(row.getString(2)).thenReturn(edge[1]);
+				handler.processRow(row);
+			}
+			return null;
+		}).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+	}
+
+	private Set<String> following(String userId) {
+		return new HashSet<>(graph.getFollowingIds(userId));
+	}
+
+	private Set<String> followers(String userId) {
+		return new HashSet<>(graph.getFollowerIds(userId));
+	}
+
+}
@@ -0,0 +1,25 @@
+package mini_twitter.follow_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class FollowPageResponseDto {
+
+    // Set when expand=true (default)
+    private List<UserResponseDto> users;
+
+    // Set when expand=false
+    private List<String> ids;
+
+    // Pass as "after" to fetch the next page; null on the last page
+    private String nextCursor;
+
+}
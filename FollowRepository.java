@@ -1,9 +1,14 @@
 package mini_twitter.follow_service.repository;
 
 import mini_twitter.follow_service.entity.Follow;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,9 +17,49 @@ public interface FollowRepository extends JpaRepository<Follow, String> {
 
     boolean existsByUserIdAndFollowerId(String userId, String followerId);
 
-    void deleteByUserIdAndFollowerId(String userId, String followerId);
+    // Returns the number of edges removed, 0 when the follower was not following the user
+    @Modifying
+    @Query("DELETE FROM Follow f WHERE f.userId = :userId AND f.followerId = :followerId")
+    int deleteByUserIdAndFollowerId(@Param("userId") String userId, @Param("followerId") String followerId);
 
     List<Follow> findByUserId(String userId);
 
     List<Follow> findByFollowerId(String userId);
+
+    // Followers of a user, newest first; reads only idx_follows_user_created
+    @Query("SELECT f.followerId AS userId, f.createdAt AS createdAt FROM Follow f WHERE f.userId = :userId " +
+            "ORDER BY f.createdAt DESC, f.followerId DESC")
+    List<FollowEdgeView> findFollowerPage(@Param("userId") String userId, Pageable pageable);
+
+    @Query("SELECT f.followerId AS userId, f.createdAt AS createdAt FROM Follow f WHERE f.userId = :userId " +
+            "AND (f.createdAt < :createdAt OR (f.createdAt = :createdAt AND f.followerId < :afterId)) " +
+            "ORDER BY f.createdAt DESC, f.followerId DESC")
+    List<FollowEdgeView> findFollowerPageAfter(@Param("userId") String userId,
+                                               @Param("createdAt") LocalDateTime createdAt,
+                                               @Param("afterId") String afterId,
+                                               Pageable pageable);
+
+    // Users followed by a user, newest first; reads only idx_follows_follower_created
+    @Query("SELECT f.userId AS userId, f.createdAt AS createdAt FROM Follow f WHERE f.followerId = :followerId " +
+            "ORDER BY f.createdAt DESC, f.userId DESC")
+    List<FollowEdgeView> findFollowingPage(@Param("followerId") String followerId, Pageable pageable);
+
+    @Query("SELECT f.userId AS userId, f.createdAt AS createdAt FROM Follow f WHERE f.followerId = :followerId " +
+            "AND (f.createdAt < :createdAt OR (f.createdAt = :createdAt AND f.userId < :afterId)) " +
+            "ORDER BY f.createdAt DESC, f.userId DESC")
+    List<FollowEdgeView> findFollowingPageAfter(@Param("followerId") String followerId,
+                                                @Param("createdAt") LocalDateTime createdAt,
+                                                @Param("afterId") String afterId,
+                                                Pageable pageable);
+
+    // Edges in either direction between the viewer and the given users; served by the two covering indexes
+    @Query("SELECT f FROM Follow f WHERE (f.followerId = :viewerId AND f.userId IN :userIds) " +
+            "OR (f.userId = :viewerId AND f.followerId IN :userIds)")
+    List<Follow> findEdgesBetween(@Param("viewerId") String viewerId, @Param("userIds") List<String> userIds);
+
+    @Query("SELECT f.followerId FROM Follow f WHERE f.userId = :userId")
+    List<String> findFollowerIdsByUserId(@Param("userId") String userId);
+
+    @Query("SELECT f.userId FROM Follow f WHERE f.followerId = :followerId")
+    List<String> findFollowingIdsByFollowerId(@Param("followerId") String followerId);
 }
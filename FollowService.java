@@ -2,17 +2,26 @@ package mini_twitter.follow_service.service;
 
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
-import mini_twitter.follow_service.dto.UserResponseDto;
+import mini_twitter.follow_service.dto.FollowPageResponseDto;
+import mini_twitter.follow_service.dto.FollowStatsDto;
 import mini_twitter.follow_service.dto.WebResponseDto;
+import mini_twitter.follow_service.entity.FollowCount;
+import mini_twitter.follow_service.repository.FollowCountRepository;
+import mini_twitter.follow_service.repository.FollowEdgeView;
 import mini_twitter.follow_service.repository.FollowRepository;
+import mini_twitter.follow_service.webclient.TimelineInvalidationClient;
+import mini_twitter.follow_service.webclient.UserBatchClient;
 import mini_twitter.follow_service.webclient.UserServiceClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import mini_twitter.follow_service.entity.Follow;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -22,6 +31,18 @@ public class FollowService {
 
     private static final Logger logger = LoggerFactory.getLogger(FollowService.class);
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+
+    // Same as the user-service batch limit, so an expanded page is one user lookup
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private static final int MAX_BATCH_SIZE = 500;
+
+    // Relationship flags returned by getRelationships
+    public static final int VIEWER_FOLLOWS = 1;
+
+    public static final int FOLLOWS_VIEWER = 2;
+
     @Autowired
     private FollowRepository followRepository;
 
@@ -31,6 +52,21 @@ public class FollowService {
     @Autowired
     private UserServiceClient userServiceClient; // Client to communicate with User Service
 
+    @Autowired
+    private UserBatchClient userBatchClient;
+
+    @Autowired
+    private FollowGraph followGraph;
+
+    @Autowired
+    private FollowCountRepository followCountRepository;
+
+    @Autowired
+    private SuggestionService suggestionService;
+
+    @Autowired
+    private TimelineInvalidationClient timelineInvalidationClient;
+
     @Transactional
     public WebResponseDto<String> followUser(String userId, String token) {
         logger.info("Received follow request. User ID to follow: {}, Token: {}", userId, token);
@@ -52,7 +88,17 @@ public class FollowService {
         follow.setId(UUID.randomUUID().toString());
         follow.setUserId(userId);
         follow.setFollowerId(followerId);
-        followRepository.save(follow);
+        try {
+            // Flushed here so a concurrent follow of the same user fails on the unique key right away
+            followRepository.saveAndFlush(follow);
+        } catch (DataIntegrityViolationException e) {
+            logger.warn("Follower ID: {} is already following User ID: {}", followerId, userId);
+            throw new IllegalArgumentException("You are already following this user.");
+        }
+        updateCounts(userId, followerId, 1);
+        followGraph.onFollowed(userId, followerId);
+        suggestionService.onFollowed(userId, followerId);
+        timelineInvalidationClient.followingChanged(followerId);
 
         logger.info("Follower ID: {} successfully followed User ID: {}", followerId, userId);
         return WebResponseDto.<String>builder().data("You are now following user-" + userId + ".").build();
@@ -65,48 +111,214 @@ public class FollowService {
         // Get the ID of the follower from the token
         String followerId = userServiceClient.getUserIdFromToken(token);
 
-        if (!followRepository.existsByUserIdAndFollowerId(userId, followerId)) {
+        // Only the request that actually removed the edge updates counts and caches
+        if (followRepository.deleteByUserIdAndFollowerId(userId, followerId) == 0) {
             logger.warn("Follower ID: {} is not following User ID: {}", followerId, userId);
             throw new IllegalArgumentException("You are not following this user.");
         }
-
-        followRepository.deleteByUserIdAndFollowerId(userId, followerId);
+        updateCounts(userId, followerId, -1);
+        followGraph.onUnfollowed(userId, followerId);
+        suggestionService.onUnfollowed(followerId);
+        timelineInvalidationClient.followingChanged(followerId);
         logger.info("Follower ID: {} successfully unfollowed User ID: {}", followerId, userId);
         return WebResponseDto.<String>builder().data("You have unfollowed user-" + userId + ".").build();
     }
 
-    public WebResponseDto<List<UserResponseDto>> getFollowers(String userId) {
-        logger.info("Fetching followers for User ID: {}", userId);
-        List<Follow> followers = followRepository.findByUserId(userId);
+    public WebResponseDto<FollowPageResponseDto> getFollowers(String userId, Integer limit, String after, boolean expand) {
+        logger.info("Fetching followers for User ID: {}, limit: {}, after: {}, expand: {}", userId, limit, after, expand);
+        FollowCursor cursor = decodeCursor(after);
+        if (cursor == null && after != null) {
+            return WebResponseDto.<FollowPageResponseDto>builder().errors("Invalid cursor.").build();
+        }
 
-        if (followers.isEmpty()) {
+        // Fetch one extra row to learn whether another page exists
+        PageRequest page = PageRequest.of(0, pageSize(limit) + 1);
+        List<FollowEdgeView> followers = cursor == null
+                ? followRepository.findFollowerPage(userId, page)
+                : followRepository.findFollowerPageAfter(userId, cursor.getCreatedAt(), cursor.getUserId(), page);
+
+        if (followers.isEmpty() && cursor == null) {
             logger.warn("No followers found for User ID: {}", userId);
             throw new IllegalArgumentException("No followers found for this user.");
         }
 
-        List<UserResponseDto> followerDtos = followers.stream()
-                .map(follow -> userServiceClient.getUserById(follow.getFollowerId()))
-                .collect(Collectors.toList());
-
         logger.info("Successfully fetched followers for User ID: {}", userId);
-        return WebResponseDto.<List<UserResponseDto>>builder().data(followerDtos).build();
+        return WebResponseDto.<FollowPageResponseDto>builder().data(toPage(followers, pageSize(limit), expand)).build();
     }
 
-    public WebResponseDto<List<UserResponseDto>> getFollowing(String userId) {
-        logger.info("Fetching following for User ID: {}", userId);
-        List<Follow> following = followRepository.findByFollowerId(userId);
+    public WebResponseDto<FollowPageResponseDto> getFollowing(String userId, Integer limit, String after, boolean expand) {
+        logger.info("Fetching following for User ID: {}, limit: {}, after: {}, expand: {}", userId, limit, after, expand);
+        FollowCursor cursor = decodeCursor(after);
+        if (cursor == null && after != null) {
+            return WebResponseDto.<FollowPageResponseDto>builder().errors("Invalid cursor.").build();
+        }
+
+        PageRequest page = PageRequest.of(0, pageSize(limit) + 1);
+        List<FollowEdgeView> following = cursor == null
+                ? followRepository.findFollowingPage(userId, page)
+                : followRepository.findFollowingPageAfter(userId, cursor.getCreatedAt(), cursor.getUserId(), page);
 
-        if (following.isEmpty()) {
+        if (following.isEmpty() && cursor == null) {
             logger.warn("This user is not following anyone. User ID: {}", userId);
             throw new IllegalArgumentException("This user is not following anyone.");
         }
 
-        List<UserResponseDto> followingDtos = following.stream()
-                .map(follow -> userServiceClient.getUserById(follow.getUserId()))
+        logger.info("Successfully fetched following for User ID: {}", userId);
+        return WebResponseDto.<FollowPageResponseDto>builder().data(toPage(following, pageSize(limit), expand)).build();
+    }
+
+    // IDs only, without enriching through user-service; used by post-service timelines. Served from the
+    // in-memory follow graph once it is loaded
+    public WebResponseDto<List<String>> getFollowerIds(String userId) {
+        logger.info("Fetching follower IDs for User ID: {}", userId);
+        List<String> followerIds = followGraph.isReady()
+                ? followGraph.getFollowerIds(userId)
+                : followRepository.findFollowerIdsByUserId(userId);
+        return WebResponseDto.<List<String>>builder().data(followerIds).build();
+    }
+
+    public WebResponseDto<List<String>> getFollowingIds(String userId) {
+        logger.info("Fetching following IDs for User ID: {}", userId);
+        List<String> followingIds = followGraph.isReady()
+                ? followGraph.getFollowingIds(userId)
+                : followRepository.findFollowingIdsByFollowerId(userId);
+        return WebResponseDto.<List<String>>builder().data(followingIds).build();
+    }
+
+    public WebResponseDto<FollowStatsDto> getFollowStats(String userId) {
+        logger.info("Fetching follow stats for User ID: {}", userId);
+        FollowStatsDto stats = followCountRepository.findById(userId)
+                .map(this::toFollowStats)
+                .orElseGet(() -> FollowStatsDto.builder().userId(userId).build());
+        return WebResponseDto.<FollowStatsDto>builder().data(stats).build();
+    }
+
+    // Follow stats for many users in one primary-key lookup; users without follows map to zero counts
+    public WebResponseDto<Map<String, FollowStatsDto>> getFollowStats(List<String> userIds) {
+        logger.info("Fetching follow stats for {} users", userIds == null ? 0 : userIds.size());
+
+        if (userIds == null || userIds.isEmpty() || userIds.size() > MAX_BATCH_SIZE) {
+            logger.warn("Rejected follow stats batch of {} users", userIds == null ? 0 : userIds.size());
+            return WebResponseDto.<Map<String, FollowStatsDto>>builder()
+                    .errors("Between 1 and " + MAX_BATCH_SIZE + " user IDs are required.")
+                    .build();
+        }
+
+        Map<String, FollowStatsDto> stats = userIds.stream()
+                .distinct()
+                .collect(Collectors.toMap(id -> id, id -> FollowStatsDto.builder().userId(id).build()));
+        followCountRepository.findAllById(stats.keySet())
+                .forEach(count -> stats.put(count.getUserId(), toFollowStats(count)));
+
+        return WebResponseDto.<Map<String, FollowStatsDto>>builder().data(stats).build();
+    }
+
+    /**
+     * Relationship between the viewer and each user as a bitfield: {@link #VIEWER_FOLLOWS} when the
+     * viewer follows the user, {@link #FOLLOWS_VIEWER} when the user follows the viewer, both for mutuals.
+     */
+    public WebResponseDto<Map<String, Integer>> getRelationships(String token, List<String> userIds) {
+        logger.info("Fetching relationships for {} users", userIds == null ? 0 : userIds.size());
+
+        if (userIds == null || userIds.isEmpty() || userIds.size() > MAX_BATCH_SIZE) {
+            logger.warn("Rejected relationship batch of {} users", userIds == null ? 0 : userIds.size());
+            return WebResponseDto.<Map<String, Integer>>builder()
+                    .errors("Between 1 and " + MAX_BATCH_SIZE + " user IDs are required.")
+                    .build();
+        }
+
+        String viewerId = userServiceClient.getUserIdFromToken(token);
+        List<String> distinctIds = userIds.stream().distinct().collect(Collectors.toList());
+
+        Map<String, Integer> relationships;
+        if (followGraph.isReady()) {
+            relationships = distinctIds.stream().collect(Collectors.toMap(id -> id, id ->
+                    (followGraph.isFollowing(viewerId, id) ? VIEWER_FOLLOWS : 0)
+                            | (followGraph.isFollowing(id, viewerId) ? FOLLOWS_VIEWER : 0)));
+        } else {
+            relationships = distinctIds.stream().collect(Collectors.toMap(id -> id, id -> 0));
+            for (Follow edge : followRepository.findEdgesBetween(viewerId, distinctIds)) {
+                if (edge.getFollowerId().equals(viewerId)) {
+                    relationships.merge(edge.getUserId(), VIEWER_FOLLOWS, (a, b) -> a | b);
+                } else {
+                    relationships.merge(edge.getFollowerId(), FOLLOWS_VIEWER, (a, b) -> a | b);
+                }
+            }
+        }
+
+        return WebResponseDto.<Map<String, Integer>>builder().data(relationships).build();
+    }
+
+    // Touches both counter rows in a fixed order so that A following B and B following A cannot deadlock
+    private void updateCounts(String userId, String followerId, int delta) {
+        if (userId.compareTo(followerId) < 0) {
+            updateFollowerCount(userId, delta);
+            updateFollowingCount(followerId, delta);
+        } else {
+            updateFollowingCount(followerId, delta);
+            updateFollowerCount(userId, delta);
+        }
+    }
+
+    private void updateFollowerCount(String userId, int delta) {
+        if (delta > 0) {
+            followCountRepository.incrementFollowers(userId);
+        } else {
+            followCountRepository.decrementFollowers(userId);
+        }
+    }
+
+    private void updateFollowingCount(String userId, int delta) {
+        if (delta > 0) {
+            followCountRepository.incrementFollowing(userId);
+        } else {
+            followCountRepository.decrementFollowing(userId);
+        }
+    }
+
+    private FollowStatsDto toFollowStats(FollowCount count) {
+        return FollowStatsDto.builder()
+                .userId(count.getUserId())
+                .followers(count.getFollowerCount())
+                .following(count.getFollowingCount())
+                .build();
+    }
+
+    private FollowPageResponseDto toPage(List<FollowEdgeView> edges, int pageSize, boolean expand) {
+        boolean hasMore = edges.size() > pageSize;
+        List<FollowEdgeView> pageEdges = hasMore ? edges.subList(0, pageSize) : edges;
+        List<String> ids = pageEdges.stream()
+                .map(FollowEdgeView::getUserId)
                 .collect(Collectors.toList());
 
-        logger.info("Successfully fetched following for User ID: {}", userId);
-        return WebResponseDto.<List<UserResponseDto>>builder().data(followingDtos).build();
+        String nextCursor = null;
+        if (hasMore) {
+            FollowEdgeView last = pageEdges.get(pageEdges.size() - 1);
+            nextCursor = FollowCursor.of(last.getCreatedAt(), last.getUserId()).encode();
+        }
+
+        return FollowPageResponseDto.builder()
+                .users(expand ? userBatchClient.getUsersByIds(ids) : null)
+                .ids(expand ? null : ids)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private int pageSize(Integer limit) {
+        return limit == null ? DEFAULT_PAGE_SIZE : Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+    }
+
+    // Null both for "no cursor" and for a cursor that does not decode
+    private FollowCursor decodeCursor(String after) {
+        if (after == null) {
+            return null;
+        }
+        try {
+            return FollowCursor.decode(after);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid follow cursor: {}", after);
+            return null;
+        }
     }
 
 }
@@ -2,8 +2,10 @@ package mini_twitter.follow_service;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class FollowServiceApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,56 @@
+package mini_twitter.post_service.webclient;
+
+import mini_twitter.post_service.dto.WebResponseDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.List;
+
+@Component
+public class FollowServiceClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(FollowServiceClient.class);
+    private static final String BASE_URL = "http://localhost:8082/api/users";
+    private final WebClient webClient;
+
+    @Autowired
+    public FollowServiceClient(WebClient.Builder webClientBuilder) {
+        this.webClient = webClientBuilder.baseUrl(BASE_URL).build();
+    }
+
+    public List<String> getFollowerIds(String userId) {
+        return getIds("/" + userId + "/followers/ids", userId);
+    }
+
+    public List<String> getFollowingIds(String userId) {
+        return getIds("/" + userId + "/following/ids", userId);
+    }
+
+    private List<String> getIds(String url, String userId) {
+        try {
+            logger.info("Fetching {} for userId: {}", url, userId);
+
+            WebResponseDto<List<String>> response = webClient.method(HttpMethod.GET)
+                    .uri(url)
+                    .accept(MediaType.APPLICATION_JSON)
+                    .retrieve()
+                    .bodyToMono(new ParameterizedTypeReference<WebResponseDto<List<String>>>() {})
+                    .block();
+
+            if (response == null || response.getData() == null) {
+                logger.error("Null response for {} and userId: {}", url, userId);
+                throw new RuntimeException("Failed to get follow graph: Null response");
+            }
+            return response.getData();
+        } catch (Exception e) {
+            logger.error("Error fetching {} for userId: {}", url, userId, e);
+            throw new RuntimeException("Failed to get follow graph", e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package mini_twitter.follow_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class FollowStatsDto {
+
+    private String userId;
+
+    private long followers;
+
+    private long following;
+
+}
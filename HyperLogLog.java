@@ -0,0 +1,87 @@
+package mini_twitter.like_service.service;
+
+/**
+ * HyperLogLog distinct counter with 2^11 one-byte registers (2 KB, ~2.3% standard error).
+ * Sketches built with the same precision merge by taking the register-wise maximum, so per-day
+ * sketches can be combined into any window without double counting users active on several days.
+ */
+public class HyperLogLog {
+
+    private static final int PRECISION = 11;
+
+    private static final int REGISTER_COUNT = 1 << PRECISION;
+
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTER_COUNT);
+
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this.registers = new byte[REGISTER_COUNT];
+    }
+
+    /**
+     * Restores a sketch from {@link #toBytes()}.
+     */
+    public HyperLogLog(byte[] registers) {
+        if (registers.length != REGISTER_COUNT) {
+            throw new IllegalArgumentException("Expected " + REGISTER_COUNT + " registers, got " + registers.length);
+        }
+        this.registers = registers.clone();
+    }
+
+    public synchronized void add(String value) {
+        long hash = hash(value);
+        int index = (int) (hash >>> (64 - PRECISION));
+        // The guard bit caps the rank at 64 - PRECISION + 1 when the remaining bits are all zero
+        long remaining = (hash << PRECISION) | (1L << (PRECISION - 1));
+        byte rank = (byte) (Long.numberOfLeadingZeros(remaining) + 1);
+        if (rank > registers[index]) {
+            registers[index] = rank;
+        }
+    }
+
+    public synchronized void mergeInto(HyperLogLog target) {
+        for (int i = 0; i < REGISTER_COUNT; i++) {
+            if (registers[i] > target.registers[i]) {
+                target.registers[i] = registers[i];
+            }
+        }
+    }
+
+    public synchronized byte[] toBytes() {
+        return registers.clone();
+    }
+
+    public synchronized long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+
+        double estimate = ALPHA * REGISTER_COUNT * REGISTER_COUNT / sum;
+        if (estimate <= 2.5 * REGISTER_COUNT && zeros > 0) {
+            // Linear counting is more accurate while many registers are still empty
+            estimate = REGISTER_COUNT * Math.log((double) REGISTER_COUNT / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    // FNV-1a over the characters followed by the MurmurHash3 finalizer to spread the high bits
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,73 @@
+package mini_twitter.like_service.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HyperLogLogTests {
+
+	// Four standard errors of the 2^11 register sketch (~2.3%), plus slack for small counts
+	private static final double TOLERANCE = 0.1;
+
+	@Test
+	void emptySketchEstimatesZero() {
+		assertEquals(0, new HyperLogLog().estimate());
+	}
+
+	@Test
+	void estimatesWithinErrorBounds() {
+		for (int distinct : new int[]{10, 1_000, 10_000, 100_000, 1_000_000}) {
+			HyperLogLog sketch = new HyperLogLog();
+			for (int i = 0; i < distinct; i++) {
+				sketch.add("user-" + i);
+			}
+			assertWithinTolerance(distinct, sketch.estimate());
+		}
+	}
+
+	@Test
+	void ignoresDuplicates() {
+		HyperLogLog sketch = new HyperLogLog();
+		for (int round = 0; round < 10; round++) {
+			for (int i = 0; i < 5_000; i++) {
+				sketch.add("user-" + i);
+			}
+		}
+		assertWithinTolerance(5_000, sketch.estimate());
+	}
+
+	@Test
+	void mergeCountsOverlappingUsersOnce() {
+		HyperLogLog monday = new HyperLogLog();
+		HyperLogLog tuesday = new HyperLogLog();
+		for (int i = 0; i < 20_000; i++) {
+			monday.add("user-" + i);
+		}
+		for (int i = 10_000; i < 30_000; i++) {
+			tuesday.add("user-" + i);
+		}
+
+		HyperLogLog window = new HyperLogLog();
+		monday.mergeInto(window);
+		tuesday.mergeInto(window);
+		assertWithinTolerance(30_000, window.estimate());
+	}
+
+	@Test
+	void restoresFromRegisters() {
+		HyperLogLog sketch = new HyperLogLog();
+		for (int i = 0; i < 50_000; i++) {
+			sketch.add("user-" + i);
+		}
+
+		HyperLogLog restored = new HyperLogLog(sketch.toBytes());
+		assertEquals(sketch.estimate(), restored.estimate());
+		assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(new byte[16]));
+	}
+
+	private static void assertWithinTolerance(long expected, long actual) {
+		double error = Math.abs(actual - expected) / (double) expected;
+		assertTrue(error <= TOLERANCE, "estimate " + actual + " for " + expected + " distinct values");
+	}
+
+}
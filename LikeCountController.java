@@ -0,0 +1,35 @@
+package mini_twitter.like_service.controller;
+
+import mini_twitter.like_service.dto.WebResponseDto;
+import mini_twitter.like_service.service.LikeCountReconciler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+public class LikeCountController {
+
+    private static final Logger logger = LoggerFactory.getLogger(LikeCountController.class);
+
+    @Autowired
+    private LikeCountReconciler likeCountReconciler;
+
+    @PostMapping(
+            path = "/api/likes/counts/reconcile",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponseDto<String> reconcileCounts() {
+        logger.info("Request to reconcile like counters");
+
+        try {
+            likeCountReconciler.reconcile();
+            return WebResponseDto.<String>builder().data("OK").build();
+        } catch (Exception e) {
+            logger.error("Error reconciling like counters", e);
+            throw e;
+        }
+    }
+
+}
@@ -0,0 +1,83 @@
+package mini_twitter.like_service.service;
+
+import mini_twitter.like_service.repository.CommentLikeCountRepository;
+import mini_twitter.like_service.repository.PostLikeCountRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Recomputes post_like_counts and comment_like_counts from the like rows in bulk. The counters are
+ * kept up to date transactionally by {@link PostLikeService} and {@link CommentLikeService}; this job
+ * repairs drift from data loaded outside the services or from manual fixes.
+ * <p>
+ * With write-behind counters post_like_counts lags behind post_likes by the buffered deltas, and likes
+ * keep being buffered and flushed while the job runs, so post counters are not overwritten but
+ * corrected by delta: the drift read from one snapshot, minus the deltas buffered as of that snapshot.
+ */
+@Service
+public class LikeCountReconciler {
+
+    private static final Logger logger = LoggerFactory.getLogger(LikeCountReconciler.class);
+
+    @Autowired
+    private PostLikeCountRepository postLikeCountRepository;
+
+    @Autowired
+    private CommentLikeCountRepository commentLikeCountRepository;
+
+    @Autowired
+    private PostLikeCounterBuffer postLikeCounterBuffer;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public LikeCountReconciler(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // The post corrections compare reads from a single snapshot
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    @Scheduled(cron = "${likes.counts.reconcile-cron:0 0 4 * * *}")
+    public void reconcile() {
+        long start = System.currentTimeMillis();
+        logger.info("Reconciling like counters");
+
+        int posts = postLikeCounterBuffer.isEnabled() ? correctPostCounters() : transactionTemplate.execute(status ->
+                postLikeCountRepository.recomputeAll() + postLikeCountRepository.zeroUnliked());
+        int comments = transactionTemplate.execute(status ->
+                commentLikeCountRepository.recomputeAll() + commentLikeCountRepository.zeroUnliked());
+
+        logger.info("Reconciled like counters in {} ms ({} post rows, {} comment rows affected)",
+                System.currentTimeMillis() - start, posts, comments);
+    }
+
+    private int correctPostCounters() {
+        return transactionTemplate.execute(status -> {
+            // Only the snapshot read runs under the buffer's lock, the drift query does not
+            Map<String, Long> corrections = new HashMap<>();
+            postLikeCounterBuffer.bufferedDeltas(postLikeCountRepository::findAnyPostId)
+                    .forEach((postId, delta) -> corrections.put(postId, -delta));
+            for (Object[] row : postLikeCountRepository.findDrifted()) {
+                long drift = ((Number) row[1]).longValue() - ((Number) row[2]).longValue();
+                corrections.merge((String) row[0], drift, Long::sum);
+            }
+
+            int corrected = 0;
+            for (Map.Entry<String, Long> correction : corrections.entrySet()) {
+                if (correction.getValue() != 0) {
+                    postLikeCountRepository.add(correction.getKey(), correction.getValue());
+                    corrected++;
+                }
+            }
+            return corrected;
+        });
+    }
+}
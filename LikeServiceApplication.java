@@ -2,8 +2,10 @@ package mini_twitter.like_service;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class LikeServiceApplication {
 
 	public static void main(String[] args) {
@@ -9,12 +9,18 @@ import org.springframework.stereotype.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 @Component
 public class LikeServiceClient {
 
     private static final Logger logger = LoggerFactory.getLogger(LikeServiceClient.class);
     private static final String BASE_URL = "http://localhost:8085/api/posts";
+    private static final int BATCH_SIZE = 500;
     private final WebClient webClient;
 
     @Autowired
@@ -23,22 +29,56 @@ public class LikeServiceClient {
     }
 
     public int getLikesByPostId(String postId) {
+        try {
+            return getLikesByPostIdAsync(postId).block();
+        } catch (Exception e) {
+            logger.error("Error fetching likes for postId: {}", postId, e);
+            throw new RuntimeException("Failed to get likes for post", e);
+        }
+    }
+
+    public Mono<Integer> getLikesByPostIdAsync(String postId) {
         String url = "/" + postId + "/likes";
 
+        logger.info("Fetching likes for postId: {}", postId);
+
+        return webClient.method(HttpMethod.GET)
+                .uri(url)
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<WebResponseDto<Integer>>() {})
+                .map(response -> handleResponse(response, postId))
+                .switchIfEmpty(Mono.fromSupplier(() -> handleResponse(null, postId)));
+    }
+
+    // Like counts for many posts; one round trip per BATCH_SIZE post IDs
+    public Map<String, Integer> getLikesByPostIds(List<String> postIds) {
+        Map<String, Integer> likes = new HashMap<>();
+
         try {
-            logger.info("Fetching likes for postId: {}", postId);
+            for (int from = 0; from < postIds.size(); from += BATCH_SIZE) {
+                List<String> chunk = postIds.subList(from, Math.min(from + BATCH_SIZE, postIds.size()));
+                logger.info("Fetching likes for {} posts", chunk.size());
 
-            WebResponseDto<Integer> response = webClient.method(HttpMethod.GET)
-                    .uri(url)
-                    .accept(MediaType.APPLICATION_JSON)
-                    .retrieve()
-                    .bodyToMono(new ParameterizedTypeReference<WebResponseDto<Integer>>() {})
-                    .block();
+                WebResponseDto<Map<String, Integer>> response = webClient.method(HttpMethod.POST)
+                        .uri("/likes/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .bodyValue(chunk)
+                        .retrieve()
+                        .bodyToMono(new ParameterizedTypeReference<WebResponseDto<Map<String, Integer>>>() {})
+                        .block();
 
-            return handleResponse(response, postId);
+                if (response == null || response.getData() == null) {
+                    logger.error("Null response for like batch of {} posts", chunk.size());
+                    throw new RuntimeException("Failed to get likes for posts: Null response");
+                }
+                likes.putAll(response.getData());
+            }
+            return likes;
         } catch (Exception e) {
-            logger.error("Error fetching likes for postId: {}", postId, e);
-            throw new RuntimeException("Failed to get likes for post", e);
+            logger.error("Error fetching likes for {} posts", postIds.size(), e);
+            throw new RuntimeException("Failed to get likes for posts", e);
         }
     }
 
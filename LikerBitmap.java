@@ -0,0 +1,217 @@
+package mini_twitter.like_service.service;
+
+import java.util.Arrays;
+
+/**
+ * Compressed set of dense user ids, laid out like a roaring bitmap: ids are partitioned by their high
+ * 16 bits and each partition stores its low 16 bits either as a sorted array (sparse, up to 4096
+ * values) or as a 65536-bit bitmap (dense). Posts with a handful of likers cost a few bytes, viral
+ * posts cost at most 8 KB per 65536 users.
+ */
+public class LikerBitmap {
+
+    private static final int ARRAY_CONTAINER_MAX = 4096;
+
+    private char[] keys = new char[0];
+
+    private Container[] containers = new Container[0];
+
+    private int cardinality;
+
+    public synchronized boolean add(int value) {
+        char high = (char) (value >>> 16);
+        int index = Arrays.binarySearch(keys, high);
+        if (index < 0) {
+            index = -index - 1;
+            keys = insert(keys, index, high);
+            containers = insert(containers, index, new ArrayContainer());
+        }
+
+        Container container = containers[index];
+        int before = container.cardinality();
+        containers[index] = container.add((char) value);
+        boolean added = containers[index].cardinality() > before;
+        if (added) {
+            cardinality++;
+        }
+        return added;
+    }
+
+    public synchronized boolean remove(int value) {
+        int index = Arrays.binarySearch(keys, (char) (value >>> 16));
+        if (index < 0) {
+            return false;
+        }
+
+        Container container = containers[index];
+        int before = container.cardinality();
+        Container updated = container.remove((char) value);
+        if (updated.cardinality() == before) {
+            return false;
+        }
+
+        cardinality--;
+        if (updated.cardinality() == 0) {
+            keys = delete(keys, index);
+            containers = delete(containers, index);
+        } else {
+            containers[index] = updated;
+        }
+        return true;
+    }
+
+    public synchronized boolean contains(int value) {
+        int index = Arrays.binarySearch(keys, (char) (value >>> 16));
+        return index >= 0 && containers[index].contains((char) value);
+    }
+
+    public synchronized int cardinality() {
+        return cardinality;
+    }
+
+    private static char[] insert(char[] array, int index, char value) {
+        char[] result = new char[array.length + 1];
+        System.arraycopy(array, 0, result, 0, index);
+        result[index] = value;
+        System.arraycopy(array, index, result, index + 1, array.length - index);
+        return result;
+    }
+
+    private static Container[] insert(Container[] array, int index, Container value) {
+        Container[] result = new Container[array.length + 1];
+        System.arraycopy(array, 0, result, 0, index);
+        result[index] = value;
+        System.arraycopy(array, index, result, index + 1, array.length - index);
+        return result;
+    }
+
+    private static char[] delete(char[] array, int index) {
+        char[] result = new char[array.length - 1];
+        System.arraycopy(array, 0, result, 0, index);
+        System.arraycopy(array, index + 1, result, index, array.length - index - 1);
+        return result;
+    }
+
+    private static Container[] delete(Container[] array, int index) {
+        Container[] result = new Container[array.length - 1];
+        System.arraycopy(array, 0, result, 0, index);
+        System.arraycopy(array, index + 1, result, index, array.length - index - 1);
+        return result;
+    }
+
+    // add/remove return the container to keep, which may have switched representation
+    private interface Container {
+
+        Container add(char value);
+
+        Container remove(char value);
+
+        boolean contains(char value);
+
+        int cardinality();
+    }
+
+    private static final class ArrayContainer implements Container {
+
+        private char[] values = new char[4];
+
+        private int size;
+
+        @Override
+        public Container add(char value) {
+            int index = Arrays.binarySearch(values, 0, size, value);
+            if (index >= 0) {
+                return this;
+            }
+
+            if (size == ARRAY_CONTAINER_MAX) {
+                BitmapContainer bitmap = new BitmapContainer();
+                for (int i = 0; i < size; i++) {
+                    bitmap.add(values[i]);
+                }
+                return bitmap.add(value);
+            }
+
+            index = -index - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.min(size + (size >> 1) + 1, ARRAY_CONTAINER_MAX));
+            }
+            System.arraycopy(values, index, values, index + 1, size - index);
+            values[index] = value;
+            size++;
+            return this;
+        }
+
+        @Override
+        public Container remove(char value) {
+            int index = Arrays.binarySearch(values, 0, size, value);
+            if (index >= 0) {
+                System.arraycopy(values, index + 1, values, index, size - index - 1);
+                size--;
+            }
+            return this;
+        }
+
+        @Override
+        public boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, size, value) >= 0;
+        }
+
+        @Override
+        public int cardinality() {
+            return size;
+        }
+    }
+
+    private static final class BitmapContainer implements Container {
+
+        private final long[] words = new long[1024];
+
+        private int cardinality;
+
+        @Override
+        public Container add(char value) {
+            long bit = 1L << value;
+            if ((words[value >>> 6] & bit) == 0) {
+                words[value >>> 6] |= bit;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        public Container remove(char value) {
+            long bit = 1L << value;
+            if ((words[value >>> 6] & bit) == 0) {
+                return this;
+            }
+
+            words[value >>> 6] &= ~bit;
+            cardinality--;
+            if (cardinality > ARRAY_CONTAINER_MAX) {
+                return this;
+            }
+
+            ArrayContainer array = new ArrayContainer();
+            array.values = new char[cardinality];
+            for (int word = 0; word < words.length; word++) {
+                long bits = words[word];
+                while (bits != 0) {
+                    array.values[array.size++] = (char) (word * 64 + Long.numberOfTrailingZeros(bits));
+                    bits &= bits - 1;
+                }
+            }
+            return array;
+        }
+
+        @Override
+        public boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        public int cardinality() {
+            return cardinality;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package mini_twitter.user_service.security;
+
+import jakarta.annotation.PreDestroy;
+import mini_twitter.user_service.dto.PasswordHashingStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs {@link BCrypt} hashing on a dedicated, bounded pool instead of on request threads.
+ * <p>
+ * At most {@code users.password.threads} hashes run at once and at most
+ * {@code users.password.queue-capacity} wait; anything beyond that is rejected immediately with
+ * 503 so that a login storm cannot starve the rest of the service. The work factor is
+ * {@code users.password.log-rounds}; use the latency figures from {@link #stats()} to tune it.
+ */
+@Component
+public class PasswordHasher {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHasher.class);
+
+    private final ThreadPoolExecutor executor;
+
+    private final int logRounds;
+
+    private final long waitTimeoutMillis;
+
+    private final LongAdder rejected = new LongAdder();
+
+    private final LongAdder completed = new LongAdder();
+
+    private final LongAdder totalHashNanos = new LongAdder();
+
+    private final AtomicLong maxHashNanos = new AtomicLong();
+
+    public PasswordHasher(@Value("${users.password.threads:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int threads,
+                          @Value("${users.password.queue-capacity:32}") int queueCapacity,
+                          @Value("${users.password.log-rounds:10}") int logRounds,
+                          @Value("${users.password.wait-timeout-ms:10000}") long waitTimeoutMillis) {
+        this.logRounds = logRounds;
+        this.waitTimeoutMillis = waitTimeoutMillis;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hasher-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        logger.info("Password hashing pool started with {} threads, queue capacity {}, log rounds {}",
+                threads, queueCapacity, logRounds);
+    }
+
+    public String hash(String password) {
+        return submit(() -> BCrypt.hashpw(password, BCrypt.gensalt(logRounds)));
+    }
+
+    public boolean check(String plaintext, String hashed) {
+        return submit(() -> BCrypt.checkpw(plaintext, hashed));
+    }
+
+    public PasswordHashingStats stats() {
+        long count = completed.sum();
+        return PasswordHashingStats.builder()
+                .logRounds(logRounds)
+                .poolSize(executor.getMaximumPoolSize())
+                .activeCount(executor.getActiveCount())
+                .queueDepth(executor.getQueue().size())
+                .queueCapacity(executor.getQueue().size() + executor.getQueue().remainingCapacity())
+                .completed(count)
+                .rejected(rejected.sum())
+                .averageHashMillis(count == 0 ? 0 : totalHashNanos.sum() / count / 1_000_000.0)
+                .maxHashMillis(maxHashNanos.get() / 1_000_000.0)
+                .build();
+    }
+
+    private <T> T submit(Callable<T> work) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timed(work));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            logger.warn("Password hashing queue is full, rejecting request");
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Server is busy, please try again later");
+        }
+
+        try {
+            return future.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            logger.warn("Password hashing did not complete within {} ms", waitTimeoutMillis);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Server is busy, please try again later");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Request interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private <T> T timed(Callable<T> work) throws Exception {
+        long start = System.nanoTime();
+        try {
+            return work.call();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            completed.increment();
+            totalHashNanos.add(elapsed);
+            maxHashNanos.accumulateAndGet(elapsed, Math::max);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
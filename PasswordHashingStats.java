@@ -0,0 +1,31 @@
+package mini_twitter.user_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PasswordHashingStats {
+
+    private int logRounds;
+
+    private int poolSize;
+
+    private int activeCount;
+
+    private int queueDepth;
+
+    private int queueCapacity;
+
+    private long completed;
+
+    private long rejected;
+
+    private double averageHashMillis;
+
+    private double maxHashMillis;
+}
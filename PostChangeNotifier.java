@@ -0,0 +1,54 @@
+package mini_twitter.comment_service.webclient;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+
+/**
+ * Tells post-service that a post's comments changed so it drops its cached post detail. Sent after
+ * the comment transaction commits; a lost notification only leaves the cached detail stale until it
+ * expires.
+ */
+@Component
+public class PostChangeNotifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostChangeNotifier.class);
+    private static final String BASE_URL = "http://localhost:8083/api/internal/posts";
+    private static final Duration TIMEOUT = Duration.ofSeconds(2);
+
+    private final WebClient webClient;
+
+    @Autowired
+    public PostChangeNotifier(WebClient.Builder webClientBuilder) {
+        this.webClient = webClientBuilder.baseUrl(BASE_URL).build();
+    }
+
+    public void postChanged(String postId) {
+        Runnable send = () -> webClient.post()
+                .uri("/{postId}/changed", postId)
+                .retrieve()
+                .toBodilessEntity()
+                .timeout(TIMEOUT)
+                .subscribe(
+                        response -> logger.debug("Change notification for post ID: {} delivered", postId),
+                        e -> logger.warn("Failed to deliver change notification for post ID: {}: {}", postId, e.getMessage())
+                );
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send.run();
+                }
+            });
+        } else {
+            send.run();
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package mini_twitter.post_service.controller;
 
+import mini_twitter.post_service.dto.AuthorPostsRequestDto;
 import mini_twitter.post_service.dto.PostDetailResponseDto;
+import mini_twitter.post_service.dto.PostPageResponseDto;
 import mini_twitter.post_service.dto.PostRequestDto;
 import mini_twitter.post_service.dto.PostResponseDto;
+import mini_twitter.post_service.dto.SingleFlightStatsDto;
 import mini_twitter.post_service.dto.WebResponseDto;
 import mini_twitter.post_service.service.PostService;
 import org.slf4j.Logger;
@@ -58,15 +61,80 @@ public class PostController {
         }
     }
 
+    @GetMapping(
+            path = "/api/posts/{postId}/author",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponseDto<String> getPostAuthor(@PathVariable String postId) {
+        logger.info("Request to fetch author of post ID: {}", postId);
+
+        try {
+            return postService.getPostAuthor(postId);
+        } catch (Exception e) {
+            logger.error("Error fetching author of post ID: {}: {}", postId, e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    // Called by comment-service and like-service when a post's comments or likes change
+    @PostMapping(
+            path = "/api/internal/posts/{postId}/changed",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponseDto<String> postChanged(@PathVariable String postId) {
+        logger.info("Change notification for post ID: {}", postId);
+
+        return postService.onPostsChanged(List.of(postId));
+    }
+
+    @PostMapping(
+            path = "/api/internal/posts/changed",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponseDto<String> postsChanged(@RequestBody List<String> postIds) {
+        logger.info("Change notification for {} posts", postIds == null ? 0 : postIds.size());
+
+        return postService.onPostsChanged(postIds);
+    }
+
+    @GetMapping(
+            path = "/api/internal/posts/detail-loads",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponseDto<SingleFlightStatsDto> getDetailLoadStats() {
+        SingleFlightStatsDto stats = postService.getDetailLoadStats();
+        logger.debug("Post detail load stats: {}", stats);
+        return WebResponseDto.<SingleFlightStatsDto>builder().data(stats).build();
+    }
+
+    @PostMapping(
+            path = "/api/posts/by-authors",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponseDto<PostPageResponseDto> getPostsByAuthors(@RequestBody AuthorPostsRequestDto request) {
+        logger.info("Request to fetch posts for {} authors", request.getAuthorIds() == null ? 0 : request.getAuthorIds().size());
+
+        try {
+            return postService.getPostsByAuthors(request);
+        } catch (Exception e) {
+            logger.error("Error fetching posts for author batch: {}", e.getMessage(), e);
+            throw e;
+        }
+    }
+
     @GetMapping(
             path = "/api/users/{userId}/posts",
             produces = MediaType.APPLICATION_JSON_VALUE
     )
-    public ResponseEntity<WebResponseDto<List<PostResponseDto>>> getUserPosts(@PathVariable String userId) {
+    public ResponseEntity<WebResponseDto<PostPageResponseDto>> getUserPosts(@PathVariable String userId,
+                                                                          @RequestParam(required = false) Integer limit,
+                                                                          @RequestParam(required = false) String before) {
         logger.info("Request to fetch posts for userId: {}", userId);
 
         try {
-            WebResponseDto<List<PostResponseDto>> response = postService.getUserPosts(userId);
+            WebResponseDto<PostPageResponseDto> response = postService.getUserPosts(userId, limit, before);
             if (response.getErrors() != null) {
                 logger.warn("No posts found for userId: {}", userId);
                 return ResponseEntity.badRequest().body(response);
@@ -0,0 +1,72 @@
+package mini_twitter.post_service.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor over posts ordered by {@code (createdAt DESC, id DESC)}. Clients get it back
+ * as {@code nextCursor} and pass it unchanged; its encoding is not part of the API.
+ * <p>
+ * Feeds that adapt to scroll depth also carry the number of pages already served.
+ */
+public class PostCursor {
+
+    private final LocalDateTime createdAt;
+
+    private final String id;
+
+    private final int page;
+
+    private PostCursor(LocalDateTime createdAt, String id, int page) {
+        this.createdAt = createdAt;
+        this.id = id;
+        this.page = page;
+    }
+
+    public static PostCursor of(LocalDateTime createdAt, String id) {
+        return new PostCursor(createdAt, id, 0);
+    }
+
+    public static PostCursor of(LocalDateTime createdAt, String id, int page) {
+        return new PostCursor(createdAt, id, page);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the cursor was not produced by {@link #encode()}
+     */
+    public static PostCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length < 2 || parts.length > 3) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            int page = parts.length == 3 ? Integer.parseInt(parts[2]) : 0;
+            if (page < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new PostCursor(LocalDateTime.parse(parts[0]), parts[1], page);
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    public String encode() {
+        String raw = page == 0 ? createdAt + "|" + id : createdAt + "|" + id + "|" + page;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public int getPage() {
+        return page;
+    }
+}
@@ -0,0 +1,47 @@
+package mini_twitter.post_service.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostCursorTests {
+
+	private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 5, 17, 10, 15, 30, 123_000_000);
+
+	@Test
+	void roundTripsWithoutPage() {
+		PostCursor cursor = PostCursor.decode(PostCursor.of(CREATED_AT, "post-1").encode());
+
+		assertEquals(CREATED_AT, cursor.getCreatedAt());
+		assertEquals("post-1", cursor.getId());
+		assertEquals(0, cursor.getPage());
+	}
+
+	@Test
+	void roundTripsWithPage() {
+		PostCursor cursor = PostCursor.decode(PostCursor.of(CREATED_AT, "post-1", 3).encode());
+
+		assertEquals(CREATED_AT, cursor.getCreatedAt());
+		assertEquals("post-1", cursor.getId());
+		assertEquals(3, cursor.getPage());
+	}
+
+	@Test
+	void rejectsForeignCursors() {
+		assertThrows(IllegalArgumentException.class, () -> PostCursor.decode("not base64!"));
+		assertThrows(IllegalArgumentException.class, () -> PostCursor.decode(encode("no-separator")));
+		assertThrows(IllegalArgumentException.class, () -> PostCursor.decode(encode("yesterday|post-1")));
+		assertThrows(IllegalArgumentException.class, () -> PostCursor.decode(encode(CREATED_AT + "|post-1|x")));
+		assertThrows(IllegalArgumentException.class, () -> PostCursor.decode(encode(CREATED_AT + "|post-1|-1")));
+		assertThrows(IllegalArgumentException.class, () -> PostCursor.decode(encode(CREATED_AT + "|post-1|1|2")));
+	}
+
+	private static String encode(String raw) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
@@ -0,0 +1,201 @@
+package mini_twitter.post_service.service;
+
+import jakarta.annotation.PreDestroy;
+import mini_twitter.post_service.dto.CommentResponseDto;
+import mini_twitter.post_service.dto.PostDetailResponseDto;
+import mini_twitter.post_service.dto.WebResponseDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of complete post detail responses, limited both by entry count and by an estimate
+ * of their size in bytes, so a few posts with thousands of comments cannot crowd out everything else.
+ * <p>
+ * An entry is served as is for {@code posts.detail-cache.fresh-ms}. After that, and up to
+ * {@code posts.detail-cache.max-stale-ms}, it is still served while a single background refresh
+ * reloads it, which keeps hot posts warm without making readers wait. Degraded responses (comments or
+ * likes missing) and errors are never cached.
+ * <p>
+ * {@link #invalidate} drops an entry when the post or its comments or likes change. A load that was
+ * already running when its key was invalidated does not install its (possibly outdated) result; keys
+ * are tracked through a fixed array of striped counters, so an unrelated invalidation on the same
+ * stripe at worst skips one cache fill.
+ */
+@Component
+public class PostDetailCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostDetailCache.class);
+
+    private static final int STRIPES = 1024;
+
+    // Rough per-object overhead used by the weight estimate
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+
+    private static final int COMMENT_OVERHEAD_BYTES = 160;
+
+    private final int maxEntries;
+
+    private final long maxWeight;
+
+    private final long freshMillis;
+
+    private final long maxStaleMillis;
+
+    // Access-ordered, guarded by this
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long weight;
+
+    private final AtomicLongArray invalidations = new AtomicLongArray(STRIPES);
+
+    private final ThreadPoolExecutor refreshExecutor;
+
+    public PostDetailCache(@Value("${posts.detail-cache.max-entries:10000}") int maxEntries,
+                           @Value("${posts.detail-cache.max-weight-bytes:67108864}") long maxWeight,
+                           @Value("${posts.detail-cache.fresh-ms:5000}") long freshMillis,
+                           @Value("${posts.detail-cache.max-stale-ms:60000}") long maxStaleMillis,
+                           @Value("${posts.detail-cache.refresh-threads:2}") int refreshThreads) {
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.freshMillis = freshMillis;
+        this.maxStaleMillis = maxStaleMillis;
+        // Refreshes are optional work; when the queue is full the stale entry is simply served again
+        this.refreshExecutor = new ThreadPoolExecutor(refreshThreads, refreshThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1000), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    public WebResponseDto<PostDetailResponseDto> get(String postId, Supplier<WebResponseDto<PostDetailResponseDto>> loader) {
+        long now = System.currentTimeMillis();
+        Entry entry;
+        boolean refresh = false;
+        synchronized (this) {
+            entry = entries.get(postId);
+            if (entry != null && now - entry.loadedAt > freshMillis) {
+                if (now - entry.loadedAt > maxStaleMillis) {
+                    entry = null;
+                } else if (!entry.refreshing) {
+                    entry.refreshing = true;
+                    refresh = true;
+                }
+            }
+        }
+
+        if (entry == null) {
+            return load(postId, loader);
+        }
+        if (refresh) {
+            scheduleRefresh(postId, entry, loader);
+        }
+        return entry.response;
+    }
+
+    public void invalidate(String postId) {
+        invalidations.incrementAndGet(stripe(postId));
+        synchronized (this) {
+            Entry removed = entries.remove(postId);
+            if (removed != null) {
+                weight -= removed.weight;
+            }
+        }
+        logger.debug("Invalidated cached detail for postId: {}", postId);
+    }
+
+    private WebResponseDto<PostDetailResponseDto> load(String postId, Supplier<WebResponseDto<PostDetailResponseDto>> loader) {
+        long version = invalidations.get(stripe(postId));
+        WebResponseDto<PostDetailResponseDto> response = loader.get();
+        PostDetailResponseDto detail = response.getData();
+        if (detail != null && !detail.isDegraded()) {
+            install(postId, response, version);
+        }
+        return response;
+    }
+
+    private void scheduleRefresh(String postId, Entry stale, Supplier<WebResponseDto<PostDetailResponseDto>> loader) {
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    load(postId, loader);
+                } catch (RuntimeException e) {
+                    logger.warn("Background refresh failed for postId: {}. Reason: {}", postId, e.getMessage());
+                } finally {
+                    stale.refreshing = false;
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            stale.refreshing = false;
+        }
+    }
+
+    private synchronized void install(String postId, WebResponseDto<PostDetailResponseDto> response, long version) {
+        if (invalidations.get(stripe(postId)) != version) {
+            return;
+        }
+        Entry entry = new Entry(response, System.currentTimeMillis(), weigh(response.getData()));
+        if (entry.weight > maxWeight) {
+            return;
+        }
+        Entry previous = entries.put(postId, entry);
+        if (previous != null) {
+            weight -= previous.weight;
+        }
+        weight += entry.weight;
+
+        Iterator<Entry> eldest = entries.values().iterator();
+        while ((entries.size() > maxEntries || weight > maxWeight) && eldest.hasNext()) {
+            weight -= eldest.next().weight;
+            eldest.remove();
+        }
+    }
+
+    private static long weigh(PostDetailResponseDto detail) {
+        // Strings are counted at two bytes per char
+        long bytes = ENTRY_OVERHEAD_BYTES + 2L * length(detail.getContent());
+        if (detail.getComments() != null) {
+            for (CommentResponseDto comment : detail.getComments()) {
+                bytes += COMMENT_OVERHEAD_BYTES + 2L * length(comment.getComment());
+            }
+        }
+        return bytes;
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    private static int stripe(String postId) {
+        return (postId.hashCode() & Integer.MAX_VALUE) % STRIPES;
+    }
+
+    private static final class Entry {
+
+        private final WebResponseDto<PostDetailResponseDto> response;
+
+        private final long loadedAt;
+
+        private final long weight;
+
+        private volatile boolean refreshing;
+
+        private Entry(WebResponseDto<PostDetailResponseDto> response, long loadedAt, long weight) {
+            this.response = response;
+            this.loadedAt = loadedAt;
+            this.weight = weight;
+        }
+    }
+}
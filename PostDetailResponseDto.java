@@ -22,5 +22,10 @@ public class PostDetailResponseDto {
 
     private List<CommentResponseDto> comments;
 
+    // true when comments and/or likes could not be fetched in time; see unavailable
+    private boolean degraded;
+
+    private List<String> unavailable;
+
 }
 
@@ -0,0 +1,50 @@
+package mini_twitter.post_service.service;
+
+import mini_twitter.post_service.dto.PostResponseDto;
+import mini_twitter.post_service.entity.Post;
+import mini_twitter.post_service.webclient.LikeServiceClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Turns a page of feed posts into responses, with the like counts of the whole page fetched in one
+ * batch call instead of one call per post. A feed is still served when like-service fails; the
+ * counts are then left out.
+ */
+@Component
+public class PostFeedAssembler {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostFeedAssembler.class);
+
+    @Autowired
+    private LikeServiceClient likeServiceClient;
+
+    public List<PostResponseDto> toResponses(List<Post> posts) {
+        Map<String, Integer> likes = Collections.emptyMap();
+        if (!posts.isEmpty()) {
+            try {
+                likes = likeServiceClient.getLikesByPostIds(posts.stream().map(Post::getId).collect(Collectors.toList()));
+            } catch (RuntimeException e) {
+                logger.warn("Like counts unavailable for {} feed posts. Reason: {}", posts.size(), e.getMessage());
+            }
+        }
+
+        Map<String, Integer> likeCounts = likes;
+        return posts.stream()
+                .map(post -> PostResponseDto.builder()
+                        .id(post.getId())
+                        .userId(post.getUserId())
+                        .content(post.getContent())
+                        .createdAt(post.getCreatedAt())
+                        .likes(likeCounts.get(post.getId()))
+                        .build())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,81 @@
+package mini_twitter.like_service.webclient;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tells post-service which posts had their like count changed so it drops their cached post detail.
+ * A viral post is liked many times a second, so changes are collected after commit and sent as one
+ * batch per {@code likes.post-change.interval-ms}; each post is reported at most once per batch.
+ * Delivery is best effort.
+ */
+@Component
+public class PostLikeChangeNotifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostLikeChangeNotifier.class);
+    private static final String BASE_URL = "http://localhost:8083/api/internal/posts";
+    private static final Duration TIMEOUT = Duration.ofSeconds(2);
+
+    // Same as the post-service limit for one notification
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    private final WebClient webClient;
+
+    private final Set<String> changedPostIds = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public PostLikeChangeNotifier(WebClient.Builder webClientBuilder) {
+        this.webClient = webClientBuilder.baseUrl(BASE_URL).build();
+    }
+
+    public void postChanged(String postId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    changedPostIds.add(postId);
+                }
+            });
+        } else {
+            changedPostIds.add(postId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${likes.post-change.interval-ms:1000}")
+    public void flush() {
+        while (!changedPostIds.isEmpty()) {
+            List<String> batch = new ArrayList<>();
+            Iterator<String> iterator = changedPostIds.iterator();
+            while (iterator.hasNext() && batch.size() < MAX_BATCH_SIZE) {
+                batch.add(iterator.next());
+                iterator.remove();
+            }
+
+            webClient.post()
+                    .uri("/changed")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(batch)
+                    .retrieve()
+                    .toBodilessEntity()
+                    .timeout(TIMEOUT)
+                    .subscribe(
+                            response -> logger.debug("Change notification for {} posts delivered", batch.size()),
+                            e -> logger.warn("Failed to deliver change notification for {} posts: {}", batch.size(), e.getMessage())
+                    );
+        }
+    }
+}
@@ -8,6 +8,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Map;
+
 @RestController
 public class PostLikeController {
 
@@ -63,4 +66,37 @@ public class PostLikeController {
         }
     }
 
-}
\ No newline at end of file
+    @PostMapping(
+            path = "/api/posts/likes/batch",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponseDto<Map<String, Integer>> getNumberOfLikesOnPosts(@RequestBody List<String> postIds) {
+        logger.info("Request to get number of likes for {} posts", postIds == null ? 0 : postIds.size());
+
+        try {
+            return postLikeService.getNumberOfLikesOnPosts(postIds);
+        } catch (Exception e) {
+            logger.error("Error getting number of likes for post batch", e);
+            throw e;
+        }
+    }
+
+    @PostMapping(
+            path = "/api/posts/likes/status",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponseDto<Map<String, Boolean>> getLikeStatus(@RequestHeader("X-API-TOKEN") String token,
+                                                              @RequestBody List<String> postIds) {
+        logger.info("Request to get like status for {} posts with token: {}", postIds == null ? 0 : postIds.size(), token);
+
+        try {
+            return postLikeService.getLikeStatus(token, postIds);
+        } catch (Exception e) {
+            logger.error("Error getting like status for post batch", e);
+            throw e;
+        }
+    }
+
+}
@@ -0,0 +1,23 @@
+package mini_twitter.like_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "post_like_counts")
+public class PostLikeCount {
+
+    @Id
+    @Column(name = "post_id")
+    private String postId;
+
+    @Column(name = "like_count", nullable = false)
+    private long likeCount;
+}
@@ -0,0 +1,54 @@
+package mini_twitter.like_service.repository;
+
+import mini_twitter.like_service.entity.PostLikeCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface PostLikeCountRepository extends JpaRepository<PostLikeCount, String> {
+
+    @Modifying
+    @Query(value = "INSERT INTO post_like_counts (post_id, like_count) VALUES (:postId, 1) " +
+            "ON DUPLICATE KEY UPDATE like_count = like_count + 1", nativeQuery = true)
+    void increment(@Param("postId") String postId);
+
+    @Modifying
+    @Query(value = "UPDATE post_like_counts SET like_count = like_count - 1 " +
+            "WHERE post_id = :postId AND like_count > 0", nativeQuery = true)
+    void decrement(@Param("postId") String postId);
+
+    // Recomputes every counter from post_likes in one statement
+    @Modifying
+    @Query(value = "INSERT INTO post_like_counts (post_id, like_count) " +
+            "SELECT * FROM (SELECT post_id, COUNT(*) AS cnt FROM post_likes GROUP BY post_id) AS actual " +
+            "ON DUPLICATE KEY UPDATE like_count = actual.cnt", nativeQuery = true)
+    int recomputeAll();
+
+    @Modifying
+    @Query(value = "UPDATE post_like_counts c SET c.like_count = 0 WHERE c.like_count <> 0 " +
+            "AND NOT EXISTS (SELECT 1 FROM post_likes l WHERE l.post_id = c.post_id)", nativeQuery = true)
+    int zeroUnliked();
+
+    // Any consistent read; the first one in a REPEATABLE READ transaction fixes its snapshot
+    @Query(value = "SELECT post_id FROM post_like_counts LIMIT 1", nativeQuery = true)
+    List<String> findAnyPostId();
+
+    // Counters that disagree with post_likes, as (post_id, like rows, stored counter). Plain SELECTs, so
+    // unlike recomputeAll they read the transaction's snapshot instead of the latest rows
+    @Query(value = "SELECT d.post_id, d.actual, d.stored FROM (SELECT c.post_id, " +
+            "(SELECT COUNT(*) FROM post_likes l WHERE l.post_id = c.post_id) AS actual, c.like_count AS stored " +
+            "FROM post_like_counts c) AS d WHERE d.actual <> d.stored " +
+            "UNION ALL SELECT l.post_id, COUNT(*), 0 FROM post_likes l " +
+            "WHERE NOT EXISTS (SELECT 1 FROM post_like_counts c WHERE c.post_id = l.post_id) GROUP BY l.post_id",
+            nativeQuery = true)
+    List<Object[]> findDrifted();
+
+    @Modifying
+    @Query(value = "INSERT INTO post_like_counts (post_id, like_count) VALUES (:postId, GREATEST(:delta, 0)) " +
+            "ON DUPLICATE KEY UPDATE like_count = GREATEST(like_count + :delta, 0)", nativeQuery = true)
+    void add(@Param("postId") String postId, @Param("delta") long delta);
+
+}
@@ -0,0 +1,379 @@
+package mini_twitter.like_service.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Write-behind buffer for post like counters ({@code likes.write-behind.enabled=true}).
+ * <p>
+ * Instead of updating the same post_like_counts row on every like, committed deltas are accumulated
+ * in striped {@link LongAdder} cells per post and flushed every {@code likes.write-behind.flush-interval-ms}
+ * as multi-row upserts. Every delta is also appended to a local log segment; a flush forces the
+ * segment to disk, rotates it and deletes it once the upsert has committed, and segments left behind by
+ * a crash are replayed at startup.
+ * <p>
+ * The log narrows, but does not close, the window for losing counts: deltas are logged only after the
+ * like commits and reach the disk only at the next rotation, and a crash between the upsert commit and
+ * the segment delete replays that segment once more. {@link LikeCountReconciler} repairs such drift
+ * against {@link #bufferedDeltas}.
+ */
+@Component
+public class PostLikeCounterBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostLikeCounterBuffer.class);
+
+    private static final String SEGMENT_PREFIX = "post-like-deltas-";
+
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private static final int UPSERT_BATCH_SIZE = 500;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+
+    private final Path logDirectory;
+
+    // Deltas committed since the last rotation
+    private final Map<String, LongAdder> pending = new ConcurrentHashMap<>();
+
+    // Deltas rotated out of pending (or replayed) that are not yet persisted
+    private final Map<String, Long> unflushed = new ConcurrentHashMap<>();
+
+    private final List<Path> unflushedSegments = new ArrayList<>();
+
+    // Read lock: committing a like and appending its delta. Write lock: rotating the segment and draining
+    // pending, or taking a snapshot of the buffered deltas
+    private final ReentrantReadWriteLock rotationLock = new ReentrantReadWriteLock();
+
+    // Null while the log cannot be written; deltas are then only counted in memory until the next rotation
+    private volatile BufferedWriter segmentWriter;
+
+    private FileChannel segmentChannel;
+
+    private Path segment;
+
+    private long segmentSequence;
+
+    public PostLikeCounterBuffer(PlatformTransactionManager transactionManager,
+                                 @Value("${likes.write-behind.enabled:false}") boolean enabled,
+                                 @Value("${likes.write-behind.log-dir:like-counter-log}") String logDirectory) {
+        this.enabled = enabled;
+        this.logDirectory = Paths.get(logDirectory);
+        // A flush commits on its own even when called from LikeCountReconciler's transaction
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+
+        Files.createDirectories(logDirectory);
+        try (DirectoryStream<Path> segments = Files.newDirectoryStream(logDirectory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path leftover : segments) {
+                replay(leftover);
+                unflushedSegments.add(leftover);
+            }
+        }
+
+        segmentSequence = System.currentTimeMillis();
+        openSegment();
+        logger.info("Write-behind like counters enabled, {} segments replayed from {}", unflushedSegments.size(), logDirectory);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Records a like (+1) or unlike (-1) once the surrounding transaction commits.
+     * <p>
+     * The delta is counted in memory and appended to the log after the commit; the log is forced to
+     * disk once per flush interval. A crash can therefore lose deltas committed since the last
+     * rotation, as can a log write failure, which is logged rather than thrown since the like has
+     * already committed.
+     * <p>
+     * The read lock is held from before the commit until the delta is counted, so {@link #bufferedDeltas}
+     * never sees a like that has committed but is not counted yet.
+     */
+    public void add(String postId, long delta) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                private boolean locked;
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    rotationLock.readLock().lock();
+                    locked = true;
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (!locked) {
+                        return;
+                    }
+                    try {
+                        if (status == STATUS_COMMITTED) {
+                            append(postId, delta);
+                        }
+                    } finally {
+                        rotationLock.readLock().unlock();
+                    }
+                }
+            });
+        } else {
+            append(postId, delta);
+        }
+    }
+
+    /**
+     * @return the delta for the post that is not yet reflected in post_like_counts
+     */
+    public long pendingDelta(String postId) {
+        // Shared with appends; only excludes the rotation that moves deltas from pending to unflushed
+        rotationLock.readLock().lock();
+        try {
+            LongAdder adder = pending.get(postId);
+            return (adder == null ? 0 : adder.sum()) + unflushed.getOrDefault(postId, 0L);
+        } finally {
+            rotationLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Persists the buffered deltas.
+     *
+     * @throws IllegalStateException when the upsert fails; the deltas stay buffered for the next flush
+     */
+    @Scheduled(fixedDelayString = "${likes.write-behind.flush-interval-ms:250}")
+    public synchronized void flush() {
+        if (!enabled) {
+            return;
+        }
+
+        rotationLock.writeLock().lock();
+        try {
+            for (Map.Entry<String, LongAdder> entry : pending.entrySet()) {
+                long delta = entry.getValue().sum();
+                if (delta != 0) {
+                    unflushed.merge(entry.getKey(), delta, Long::sum);
+                }
+            }
+            pending.clear();
+            rotateSegment();
+        } finally {
+            rotationLock.writeLock().unlock();
+        }
+
+        if (unflushed.isEmpty()) {
+            deleteFlushedSegments();
+            return;
+        }
+
+        Map<String, Long> batch = new HashMap<>(unflushed);
+        try {
+            // All chunks commit together, otherwise a retry would re-apply the chunks that succeeded
+            transactionTemplate.executeWithoutResult(status -> upsert(batch));
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to flush " + batch.size() + " like counter deltas", e);
+        }
+
+        batch.forEach((postId, delta) -> unflushed.merge(postId, -delta, (a, b) -> a + b == 0 ? null : a + b));
+        deleteFlushedSegments();
+        logger.debug("Flushed like counter deltas for {} posts", batch.size());
+    }
+
+    /**
+     * Returns the deltas not yet reflected in post_like_counts, as of the database snapshot that
+     * {@code openSnapshot} fixes. No like commits and no flush runs in between, so a like committed
+     * before the snapshot is either persisted or among the returned deltas, and a later one is neither.
+     * {@code openSnapshot} should be a single cheap read; the locks are released before it returns.
+     */
+    public synchronized Map<String, Long> bufferedDeltas(Runnable openSnapshot) {
+        if (!enabled) {
+            openSnapshot.run();
+            return Map.of();
+        }
+
+        rotationLock.writeLock().lock();
+        try {
+            openSnapshot.run();
+            Map<String, Long> deltas = new HashMap<>(unflushed);
+            pending.forEach((postId, adder) -> deltas.merge(postId, adder.sum(), Long::sum));
+            return deltas;
+        } finally {
+            rotationLock.writeLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            flush();
+        } catch (IllegalStateException e) {
+            logger.error("Like counter deltas left in {} for replay: {}", logDirectory, e.getMessage());
+        }
+        rotationLock.writeLock().lock();
+        try {
+            closeSegment();
+            if (unflushed.isEmpty()) {
+                Files.deleteIfExists(segment);
+            }
+        } finally {
+            rotationLock.writeLock().unlock();
+        }
+    }
+
+    private void append(String postId, long delta) {
+        rotationLock.readLock().lock();
+        try {
+            pending.computeIfAbsent(postId, key -> new LongAdder()).add(delta);
+            BufferedWriter writer = segmentWriter;
+            if (writer != null) {
+                try {
+                    writer.write(postId + " " + delta + "\n");
+                    writer.flush();
+                } catch (IOException e) {
+                    // Stop logging until the next rotation opens a fresh segment
+                    segmentWriter = null;
+                    logger.error("Failed to append like counter delta to {}: {}", segment, e.getMessage());
+                }
+            }
+        } finally {
+            rotationLock.readLock().unlock();
+        }
+    }
+
+    private void upsert(Map<String, Long> deltas) {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(deltas.entrySet());
+        for (int from = 0; from < entries.size(); from += UPSERT_BATCH_SIZE) {
+            List<Map.Entry<String, Long>> chunk = entries.subList(from, Math.min(from + UPSERT_BATCH_SIZE, entries.size()));
+
+            // The inserted value is clamped at zero, so the raw delta is passed again through a CASE for
+            // existing rows rather than read back with VALUES(like_count)
+            StringBuilder sql = new StringBuilder("INSERT INTO post_like_counts (post_id, like_count) VALUES ");
+            StringBuilder deltaCase = new StringBuilder(" ON DUPLICATE KEY UPDATE like_count = GREATEST(like_count + CASE post_id");
+            Object[] args = new Object[chunk.size() * 4];
+            int caseOffset = chunk.size() * 2;
+            for (int i = 0; i < chunk.size(); i++) {
+                sql.append(i == 0 ? "(?, GREATEST(?, 0))" : ", (?, GREATEST(?, 0))");
+                deltaCase.append(" WHEN ? THEN ?");
+                args[i * 2] = chunk.get(i).getKey();
+                args[i * 2 + 1] = chunk.get(i).getValue();
+                args[caseOffset + i * 2] = chunk.get(i).getKey();
+                args[caseOffset + i * 2 + 1] = chunk.get(i).getValue();
+            }
+            deltaCase.append(" ELSE 0 END, 0)");
+
+            jdbcTemplate.update(sql.append(deltaCase).toString(), args);
+        }
+    }
+
+    private void replay(Path leftover) throws IOException {
+        for (String line : Files.readAllLines(leftover, StandardCharsets.UTF_8)) {
+            int separator = line.indexOf(' ');
+            if (separator <= 0) {
+                continue; // torn last line from a crash mid-append
+            }
+            try {
+                unflushed.merge(line.substring(0, separator), Long.parseLong(line.substring(separator + 1)), Long::sum);
+            } catch (NumberFormatException e) {
+                logger.warn("Skipping malformed like counter log line in {}: {}", leftover, line);
+            }
+        }
+    }
+
+    // Called with the write lock held. Never throws, so a log failure cannot block counting
+    private void rotateSegment() {
+        if (segmentChannel != null) {
+            try {
+                closeSegment();
+            } catch (IOException e) {
+                logger.error("Failed to sync like counter log {}: {}", segment, e.getMessage());
+            }
+            unflushedSegments.add(segment);
+        }
+        try {
+            openSegment();
+        } catch (IOException e) {
+            logger.error("Failed to open like counter log in {}, deltas are kept in memory only: {}",
+                    logDirectory, e.getMessage());
+        }
+    }
+
+    private void openSegment() throws IOException {
+        segment = logDirectory.resolve(SEGMENT_PREFIX + (segmentSequence++) + SEGMENT_SUFFIX);
+        segmentChannel = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        segmentWriter = new BufferedWriter(Channels.newWriter(segmentChannel, StandardCharsets.UTF_8));
+    }
+
+    private void closeSegment() throws IOException {
+        FileChannel channel = segmentChannel;
+        BufferedWriter writer = segmentWriter;
+        segmentChannel = null;
+        segmentWriter = null;
+        if (channel == null) {
+            return;
+        }
+        try {
+            if (writer != null) {
+                writer.flush();
+            }
+            channel.force(false);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void deleteFlushedSegments() {
+        for (Path flushed : unflushedSegments) {
+            try {
+                Files.deleteIfExists(flushed);
+            } catch (IOException e) {
+                logger.warn("Failed to delete flushed like counter log {}: {}", flushed, e.getMessage());
+            }
+        }
+        unflushedSegments.clear();
+    }
+}
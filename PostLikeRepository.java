@@ -2,7 +2,11 @@ package mini_twitter.like_service.repository;
 
 import mini_twitter.like_service.entity.PostLike;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface PostLikeRepository extends JpaRepository<PostLike, String> {
@@ -11,4 +15,20 @@ public interface PostLikeRepository extends JpaRepository<PostLike, String> {
 
     int countByPostId(String postId);
 
+    @Query("SELECT l.postId FROM PostLike l WHERE l.userId = :userId AND l.postId IN :postIds")
+    List<String> findLikedPostIds(@Param("userId") String userId, @Param("postIds") List<String> postIds);
+
+    // Returns 1 when the like was added, 0 when it already existed. A duplicate on uk_post_likes_post_user
+    // becomes a no-op update, any other failure still throws. The 0 relies on useAffectedRows, see
+    // application.properties: by default Connector/J reports found rows and the no-op counts as 1
+    @Modifying
+    @Query(value = "INSERT INTO post_likes (id, post_id, user_id, created_at) " +
+            "VALUES (:id, :postId, :userId, NOW()) ON DUPLICATE KEY UPDATE id = id", nativeQuery = true)
+    int insertIfAbsent(@Param("id") String id, @Param("postId") String postId, @Param("userId") String userId);
+
+    // Returns the number of likes removed, 0 when the user had not liked the post
+    @Modifying
+    @Query("DELETE FROM PostLike l WHERE l.postId = :postId AND l.userId = :userId")
+    int deleteByPostIdAndUserId(@Param("postId") String postId, @Param("userId") String userId);
+
 }
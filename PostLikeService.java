@@ -3,16 +3,22 @@ package mini_twitter.like_service.service;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import mini_twitter.like_service.dto.WebResponseDto;
-import mini_twitter.like_service.entity.PostLike;
+import mini_twitter.like_service.entity.PostLikeCount;
+import mini_twitter.like_service.repository.PostLikeCountRepository;
 import mini_twitter.like_service.repository.PostLikeRepository;
+import mini_twitter.like_service.webclient.PostLikeChangeNotifier;
 import mini_twitter.like_service.webclient.UserServiceClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.Optional;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -20,9 +26,26 @@ public class PostLikeService {
 
     private static final Logger logger = LoggerFactory.getLogger(PostLikeService.class);
 
+    private static final int MAX_BATCH_SIZE = 500;
+
     @Autowired
     private PostLikeRepository postLikeRepository;
 
+    @Autowired
+    private PostLikeCountRepository postLikeCountRepository;
+
+    @Autowired
+    private PostLikeCounterBuffer postLikeCounterBuffer;
+
+    @Autowired
+    private PostLikerIndex postLikerIndex;
+
+    @Autowired
+    private EngagementSketches engagementSketches;
+
+    @Autowired
+    private PostLikeChangeNotifier postLikeChangeNotifier;
+
     @Autowired
     private UserServiceClient userServiceClient;
 
@@ -32,17 +55,19 @@ public class PostLikeService {
 
         String userId = userServiceClient.getUserIdFromToken(token);
 
-        Optional<PostLike> existingLike = postLikeRepository.findByPostIdAndUserId(postId, userId);
-        if (existingLike.isPresent()) {
+        int inserted = postLikeRepository.insertIfAbsent(UUID.randomUUID().toString(), postId, userId);
+        if (inserted == 0) {
             logger.warn("User ID: {} already liked post ID: {}", userId, postId);
             return WebResponseDto.<String>builder().errors("You have already liked this post.").build();
         }
-
-        PostLike postLike = new PostLike();
-        postLike.setId(UUID.randomUUID().toString());
-        postLike.setPostId(postId);
-        postLike.setUserId(userId);
-        postLikeRepository.save(postLike);
+        if (postLikeCounterBuffer.isEnabled()) {
+            postLikeCounterBuffer.add(postId, 1);
+        } else {
+            postLikeCountRepository.increment(postId);
+        }
+        postLikerIndex.onLiked(postId, userId);
+        engagementSketches.onPostEngagement(postId, userId);
+        postLikeChangeNotifier.postChanged(postId);
 
         logger.info("User ID: {} successfully liked post ID: {}", userId, postId);
         return WebResponseDto.<String>builder().data("Post liked successfully.").build();
@@ -54,13 +79,18 @@ public class PostLikeService {
 
         String userId = userServiceClient.getUserIdFromToken(token);
 
-        Optional<PostLike> existingLike = postLikeRepository.findByPostIdAndUserId(postId, userId);
-        if (existingLike.isEmpty()) {
+        int deleted = postLikeRepository.deleteByPostIdAndUserId(postId, userId);
+        if (deleted == 0) {
             log.warn("User ID: {} has not liked post ID: {}", userId, postId);
             return WebResponseDto.<String>builder().errors("You have not liked this post.").build();
         }
-
-        postLikeRepository.delete(existingLike.get());
+        if (postLikeCounterBuffer.isEnabled()) {
+            postLikeCounterBuffer.add(postId, -1);
+        } else {
+            postLikeCountRepository.decrement(postId);
+        }
+        postLikerIndex.onUnliked(postId, userId);
+        postLikeChangeNotifier.postChanged(postId);
 
         log.info("User ID: {} successfully unliked post ID: {}", userId, postId);
         return WebResponseDto.<String>builder().data("Post unliked successfully.").build();
@@ -68,9 +98,66 @@ public class PostLikeService {
 
     public WebResponseDto<Integer> getNumberOfLikesOnPost(String postId) {
         log.info("Fetching like count for post ID: {}", postId);
-        int likeCount = postLikeRepository.countByPostId(postId);
+        long persisted = postLikeCountRepository.findById(postId)
+                .map(PostLikeCount::getLikeCount)
+                .orElse(0L);
+        int likeCount = (int) Math.max(persisted + pendingDelta(postId), 0);
         log.info("Found {} likes for post ID: {}", likeCount, postId);
         return WebResponseDto.<Integer>builder().data(likeCount).build();
     }
 
+    // Like counts for many posts in one primary-key lookup; posts without likes map to 0
+    public WebResponseDto<Map<String, Integer>> getNumberOfLikesOnPosts(List<String> postIds) {
+        log.info("Fetching like counts for {} posts", postIds == null ? 0 : postIds.size());
+
+        if (postIds == null || postIds.isEmpty() || postIds.size() > MAX_BATCH_SIZE) {
+            log.warn("Rejected like count batch of {} posts", postIds == null ? 0 : postIds.size());
+            return WebResponseDto.<Map<String, Integer>>builder()
+                    .errors("Between 1 and " + MAX_BATCH_SIZE + " post IDs are required.")
+                    .build();
+        }
+
+        Map<String, Integer> counts = postIds.stream()
+                .distinct()
+                .collect(Collectors.toMap(id -> id, id -> 0));
+        postLikeCountRepository.findAllById(counts.keySet())
+                .forEach(count -> counts.put(count.getPostId(), (int) count.getLikeCount()));
+        if (postLikeCounterBuffer.isEnabled()) {
+            counts.replaceAll((postId, count) -> (int) Math.max(count + pendingDelta(postId), 0));
+        }
+
+        return WebResponseDto.<Map<String, Integer>>builder().data(counts).build();
+    }
+
+    // Whether the viewer has liked each post, answered from the in-memory liker index once it is built
+    public WebResponseDto<Map<String, Boolean>> getLikeStatus(String token, List<String> postIds) {
+        log.info("Fetching like status for {} posts", postIds == null ? 0 : postIds.size());
+
+        if (postIds == null || postIds.isEmpty() || postIds.size() > MAX_BATCH_SIZE) {
+            log.warn("Rejected like status batch of {} posts", postIds == null ? 0 : postIds.size());
+            return WebResponseDto.<Map<String, Boolean>>builder()
+                    .errors("Between 1 and " + MAX_BATCH_SIZE + " post IDs are required.")
+                    .build();
+        }
+
+        String userId = userServiceClient.getUserIdFromToken(token);
+
+        Map<String, Boolean> status;
+        if (postLikerIndex.isReady()) {
+            status = postIds.stream()
+                    .distinct()
+                    .collect(Collectors.toMap(id -> id, id -> postLikerIndex.hasLiked(id, userId)));
+        } else {
+            List<String> distinctIds = postIds.stream().distinct().collect(Collectors.toList());
+            Set<String> liked = new HashSet<>(postLikeRepository.findLikedPostIds(userId, distinctIds));
+            status = distinctIds.stream().collect(Collectors.toMap(id -> id, liked::contains));
+        }
+
+        return WebResponseDto.<Map<String, Boolean>>builder().data(status).build();
+    }
+
+    private long pendingDelta(String postId) {
+        return postLikeCounterBuffer.isEnabled() ? postLikeCounterBuffer.pendingDelta(postId) : 0;
+    }
+
 }
@@ -0,0 +1,136 @@
+package mini_twitter.like_service.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory postId -> likers index answering "has this user liked these posts?" without a query per post.
+ * <p>
+ * User ids are mapped to dense ints on first sight so that each post's likers fit in a {@link LikerBitmap}.
+ * The index is rebuilt from post_likes once the application is ready (after the seed data is in) and is
+ * kept current by {@link PostLikeService} after each like/unlike commits. Until the rebuild completes,
+ * {@link #isReady()} is false and callers fall back to the database.
+ */
+@Component
+public class PostLikerIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostLikerIndex.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Map<String, Integer> userIds = new ConcurrentHashMap<>();
+
+    private final AtomicInteger nextUserId = new AtomicInteger();
+
+    private final Map<String, LikerBitmap> likersByPost = new ConcurrentHashMap<>();
+
+    // Changes committed while the rebuild scans post_likes, applied once the scan is done
+    private final List<Runnable> changesDuringRebuild = new ArrayList<>();
+
+    private volatile boolean ready;
+
+    private boolean rebuilding;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        synchronized (changesDuringRebuild) {
+            rebuilding = true;
+        }
+
+        boolean built = false;
+        try {
+            jdbcTemplate.query("SELECT post_id, user_id FROM post_likes", rs -> {
+                likersByPost.computeIfAbsent(rs.getString(1), postId -> new LikerBitmap())
+                        .add(denseId(rs.getString(2)));
+            });
+            built = true;
+        } catch (RuntimeException e) {
+            // The index stays not ready, so callers keep using the database
+            logger.error("Failed to build liker index, falling back to the database", e);
+        } finally {
+            synchronized (changesDuringRebuild) {
+                if (built) {
+                    changesDuringRebuild.forEach(Runnable::run);
+                }
+                changesDuringRebuild.clear();
+                rebuilding = false;
+            }
+        }
+        if (!built) {
+            return;
+        }
+        ready = true;
+
+        logger.info("Built liker index for {} posts and {} users in {} ms",
+                likersByPost.size(), userIds.size(), System.currentTimeMillis() - start);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void onLiked(String postId, String userId) {
+        afterCommit(() -> likersByPost.computeIfAbsent(postId, id -> new LikerBitmap()).add(denseId(userId)));
+    }
+
+    public void onUnliked(String postId, String userId) {
+        afterCommit(() -> {
+            Integer denseId = userIds.get(userId);
+            LikerBitmap likers = likersByPost.get(postId);
+            if (denseId != null && likers != null) {
+                likers.remove(denseId);
+            }
+        });
+    }
+
+    public boolean hasLiked(String postId, String userId) {
+        Integer denseId = userIds.get(userId);
+        if (denseId == null) {
+            return false;
+        }
+        LikerBitmap likers = likersByPost.get(postId);
+        return likers != null && likers.contains(denseId);
+    }
+
+    private int denseId(String userId) {
+        return userIds.computeIfAbsent(userId, id -> nextUserId.getAndIncrement());
+    }
+
+    private void afterCommit(Runnable change) {
+        Runnable apply = () -> {
+            synchronized (changesDuringRebuild) {
+                if (rebuilding) {
+                    changesDuringRebuild.add(change);
+                    return;
+                }
+            }
+            change.run();
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+}
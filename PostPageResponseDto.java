@@ -0,0 +1,21 @@
+package mini_twitter.post_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PostPageResponseDto {
+
+    private List<PostResponseDto> posts;
+
+    // Pass as "before" to fetch the next (older) page; null on the last page
+    private String nextCursor;
+
+}
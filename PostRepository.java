@@ -1,9 +1,13 @@
 package mini_twitter.post_service.repository;
 
 import mini_twitter.post_service.entity.Post;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -11,4 +15,35 @@ public interface PostRepository extends JpaRepository<Post, String> {
 
     List<Post> findAllByUserId(String userId);
 
+    // Newest posts of a user; first page of the (created_at, id) keyset
+    List<Post> findByUserIdOrderByCreatedAtDescIdDesc(String userId, Pageable pageable);
+
+    // Posts of a user strictly older than the (createdAt, id) cursor, served from idx_posts_user_created
+    @Query("SELECT p FROM Post p WHERE p.userId = :userId " +
+            "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findByUserIdBefore(@Param("userId") String userId,
+                                  @Param("createdAt") LocalDateTime createdAt,
+                                  @Param("id") String id,
+                                  Pageable pageable);
+
+    // Newest post IDs across many authors; used to rebuild cold home timelines
+    @Query("SELECT p.id FROM Post p WHERE p.userId IN :userIds ORDER BY p.createdAt DESC, p.id DESC")
+    List<String> findIdsByUserIdIn(@Param("userIds") List<String> userIds, Pageable pageable);
+
+    // The newest perAuthor posts of each author strictly older than the (createdAt, id) cursor, grouped
+    // by author and newest first within a group; each partition is a range scan of idx_posts_user_created
+    @Query(value = "SELECT ranked.id, ranked.user_id, ranked.content, ranked.created_at, ranked.updated_at " +
+            "FROM (SELECT p.*, ROW_NUMBER() OVER (PARTITION BY p.user_id ORDER BY p.created_at DESC, p.id DESC) AS rn " +
+            "      FROM posts p " +
+            "      WHERE p.user_id IN (:userIds) " +
+            "        AND (p.created_at < :createdAt OR (p.created_at = :createdAt AND p.id < :id))) ranked " +
+            "WHERE ranked.rn <= :perAuthor " +
+            "ORDER BY ranked.user_id, ranked.created_at DESC, ranked.id DESC",
+            nativeQuery = true)
+    List<Post> findTopPerAuthorBefore(@Param("userIds") List<String> userIds,
+                                      @Param("createdAt") LocalDateTime createdAt,
+                                      @Param("id") String id,
+                                      @Param("perAuthor") int perAuthor);
+
 }
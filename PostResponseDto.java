@@ -21,4 +21,7 @@ public class PostResponseDto {
 
     private LocalDateTime createdAt;
 
+    // Only filled in by the feed endpoints; null elsewhere or when like-service did not answer
+    private Integer likes;
+
 }
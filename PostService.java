@@ -2,9 +2,13 @@ package mini_twitter.post_service.service;
 
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
+import mini_twitter.post_service.dto.AuthorPostsRequestDto;
+import mini_twitter.post_service.dto.CommentResponseDto;
 import mini_twitter.post_service.dto.PostDetailResponseDto;
+import mini_twitter.post_service.dto.PostPageResponseDto;
 import mini_twitter.post_service.dto.PostRequestDto;
 import mini_twitter.post_service.dto.PostResponseDto;
+import mini_twitter.post_service.dto.SingleFlightStatsDto;
 import mini_twitter.post_service.dto.WebResponseDto;
 import mini_twitter.post_service.entity.Post;
 import mini_twitter.post_service.repository.PostRepository;
@@ -14,9 +18,17 @@ import mini_twitter.post_service.webclient.UserServiceClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -28,6 +40,16 @@ public class PostService {
 
     private static final Logger logger = LoggerFactory.getLogger(PostService.class);
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private static final int DEFAULT_PER_AUTHOR = 5;
+
+    private static final int MAX_AUTHORS = 10000;
+
+    private static final int MAX_CHANGED_BATCH_SIZE = 1000;
+
     @Autowired
     private PostRepository postRepository;
 
@@ -43,6 +65,27 @@ public class PostService {
     @Autowired
     private LikeServiceClient likeServiceClient;
 
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private PostDetailCache postDetailCache;
+
+    @Autowired
+    private PostFeedAssembler postFeedAssembler;
+
+    @Autowired
+    private AuthorPostsMerger authorPostsMerger;
+
+    // Concurrent cache misses for one post share a single load
+    private final SingleFlight<String, WebResponseDto<PostDetailResponseDto>> detailLoads = new SingleFlight<>();
+
+    @Value("${posts.detail.comments-timeout-ms:800}")
+    private long commentsTimeoutMillis;
+
+    @Value("${posts.detail.likes-timeout-ms:500}")
+    private long likesTimeoutMillis;
+
     @Transactional
     public WebResponseDto<PostResponseDto> createPost(String token, PostRequestDto request) {
         logger.info("Create Post Request: {}, Token: {}", request, token);
@@ -66,6 +109,7 @@ public class PostService {
         post.setContent(request.getContent());
         post.setCreatedAt(LocalDateTime.now());
         postRepository.save(post);
+        timelineService.onPostCreated(post);
 
         logger.info("Post created successfully: {}", post);
 
@@ -88,6 +132,7 @@ public class PostService {
             Post post = postOptional.get();
             if (post.getUserId().equals(userId)) {
                 postRepository.delete(post);
+                invalidateAfterCommit(postId);
                 logger.info("Post ID: {} deleted successfully by user ID: {}", postId, userId);
                 return WebResponseDto.<String>builder()
                         .data("Post deleted successfully.")
@@ -106,27 +151,111 @@ public class PostService {
         }
     }
 
+    // Lightweight owner lookup for other services; no comment or like fan-out
+    public WebResponseDto<String> getPostAuthor(String postId) {
+        logger.info("Fetching author for postId: {}", postId);
+
+        return postRepository.findById(postId)
+                .map(post -> WebResponseDto.<String>builder().data(post.getUserId()).build())
+                .orElseGet(() -> WebResponseDto.<String>builder().errors("Post not found.").build());
+    }
+
     public WebResponseDto<PostDetailResponseDto> getPostDetail(String postId) {
         logger.info("Fetching post details for postId: {}", postId);
+        return postDetailCache.get(postId, () -> detailLoads.execute(postId, () -> loadPostDetail(postId)));
+    }
+
+    /**
+     * Called when comment-service or like-service report a change that affects the detail view.
+     */
+    public WebResponseDto<String> onPostsChanged(List<String> postIds) {
+        logger.info("Received change notification for {} posts", postIds == null ? 0 : postIds.size());
+
+        if (postIds == null || postIds.isEmpty() || postIds.size() > MAX_CHANGED_BATCH_SIZE) {
+            return WebResponseDto.<String>builder()
+                    .errors("Between 1 and " + MAX_CHANGED_BATCH_SIZE + " post IDs are required.")
+                    .build();
+        }
+
+        postIds.forEach(this::invalidatePostDetail);
+        return WebResponseDto.<String>builder().data("OK").build();
+    }
+
+    private void invalidateAfterCommit(String postId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidatePostDetail(postId);
+                }
+            });
+        } else {
+            invalidatePostDetail(postId);
+        }
+    }
+
+    // A load already in flight may have read the old state; later requests must not join it
+    private void invalidatePostDetail(String postId) {
+        detailLoads.forget(postId);
+        postDetailCache.invalidate(postId);
+    }
+
+    public SingleFlightStatsDto getDetailLoadStats() {
+        return SingleFlightStatsDto.builder()
+                .inFlight(detailLoads.inFlight())
+                .leaders(detailLoads.leaders())
+                .collapsed(detailLoads.collapsed())
+                .build();
+    }
+
+    private WebResponseDto<PostDetailResponseDto> loadPostDetail(String postId) {
         try {
             Optional<Post> postOptional = postRepository.findById(postId);
             if (postOptional.isPresent()) {
                 Post post = postOptional.get();
                 logger.info("Post found for postId: {}", postId);
 
-                var comments = commentServiceClient.getCommentsByPostId(postId);
-                logger.info("Fetched {} comments for postId: {}", comments.size(), postId);
+                // Fetch comments and likes concurrently; a side that fails or times out is left out
+                Mono<Optional<List<CommentResponseDto>>> commentsMono = commentServiceClient.getCommentsByPostIdAsync(postId)
+                        .timeout(Duration.ofMillis(commentsTimeoutMillis))
+                        .map(Optional::of)
+                        .onErrorResume(e -> {
+                            logger.warn("Comments unavailable for postId: {}. Reason: {}", postId, e.toString());
+                            return Mono.just(Optional.empty());
+                        });
+
+                Mono<Optional<Integer>> likesMono = likeServiceClient.getLikesByPostIdAsync(postId)
+                        .timeout(Duration.ofMillis(likesTimeoutMillis))
+                        .map(Optional::of)
+                        .onErrorResume(e -> {
+                            logger.warn("Likes unavailable for postId: {}. Reason: {}", postId, e.toString());
+                            return Mono.just(Optional.empty());
+                        });
 
-                int likeCount = likeServiceClient.getLikesByPostId(postId);
-                logger.info("Fetched {} likes for postId: {}", likeCount, postId);
+                Tuple2<Optional<List<CommentResponseDto>>, Optional<Integer>> results =
+                        Mono.zip(commentsMono, likesMono).block();
+                Optional<List<CommentResponseDto>> comments = results.getT1();
+                Optional<Integer> likeCount = results.getT2();
+
+                List<String> unavailable = new ArrayList<>();
+                if (comments.isEmpty()) {
+                    unavailable.add("comments");
+                }
+                if (likeCount.isEmpty()) {
+                    unavailable.add("likes");
+                }
+                logger.info("Fetched {} comments and {} likes for postId: {}",
+                        comments.map(List::size).orElse(null), likeCount.orElse(null), postId);
 
                 PostDetailResponseDto postDetailResponse = PostDetailResponseDto.builder()
                         .id(post.getId())
                         .userId(post.getUserId())
                         .content(post.getContent())
                         .createdAt(post.getCreatedAt())
-                        .comments(comments)
-                        .likes(likeCount)
+                        .comments(comments.orElse(null))
+                        .likes(likeCount.orElse(0))
+                        .degraded(!unavailable.isEmpty())
+                        .unavailable(unavailable.isEmpty() ? null : unavailable)
                         .build();
 
                 return WebResponseDto.<PostDetailResponseDto>builder()
@@ -146,28 +275,119 @@ public class PostService {
         }
     }
 
-    public WebResponseDto<List<PostResponseDto>> getUserPosts(String userId) {
-        logger.info("Fetching posts for userId: {}", userId);
+    public WebResponseDto<PostPageResponseDto> getUserPosts(String userId, Integer limit, String before) {
+        logger.info("Fetching posts for userId: {}, limit: {}, before: {}", userId, limit, before);
+
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        PostCursor cursor;
+        try {
+            cursor = before == null ? null : PostCursor.decode(before);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid cursor for userId: {}: {}", userId, before);
+            return WebResponseDto.<PostPageResponseDto>builder()
+                    .errors("Invalid cursor.")
+                    .build();
+        }
+
         try {
-            List<Post> userPosts = postRepository.findAllByUserId(userId);
-            if (userPosts.isEmpty()) {
+            // Fetch one extra row to learn whether another page exists
+            PageRequest page = PageRequest.of(0, pageSize + 1);
+            List<Post> userPosts = cursor == null
+                    ? postRepository.findByUserIdOrderByCreatedAtDescIdDesc(userId, page)
+                    : postRepository.findByUserIdBefore(userId, cursor.getCreatedAt(), cursor.getId(), page);
+
+            if (userPosts.isEmpty() && cursor == null) {
                 logger.warn("No posts found for userId: {}", userId);
-                return WebResponseDto.<List<PostResponseDto>>builder()
+                return WebResponseDto.<PostPageResponseDto>builder()
                         .errors("No posts found for this user.")
                         .build();
             }
 
-            List<PostResponseDto> postResponses = userPosts.stream()
+            boolean hasMore = userPosts.size() > pageSize;
+            List<Post> pagePosts = hasMore ? userPosts.subList(0, pageSize) : userPosts;
+
+            List<PostResponseDto> postResponses = pagePosts.stream()
                     .map(this::toPostResponse)
                     .collect(Collectors.toList());
 
+            String nextCursor = null;
+            if (hasMore) {
+                Post last = pagePosts.get(pagePosts.size() - 1);
+                nextCursor = PostCursor.of(last.getCreatedAt(), last.getId()).encode();
+            }
+
             logger.info("Successfully fetched {} posts for userId: {}", postResponses.size(), userId);
-            return WebResponseDto.<List<PostResponseDto>>builder()
-                    .data(postResponses)
+            return WebResponseDto.<PostPageResponseDto>builder()
+                    .data(PostPageResponseDto.builder()
+                            .posts(postResponses)
+                            .nextCursor(nextCursor)
+                            .build())
                     .build();
         } catch (Exception e) {
             logger.error("Error fetching posts for userId: {}. Exception: {}", userId, e.getMessage());
-            return WebResponseDto.<List<PostResponseDto>>builder()
+            return WebResponseDto.<PostPageResponseDto>builder()
+                    .errors("An error occurred while fetching posts.")
+                    .build();
+        }
+    }
+
+    /**
+     * Newest posts across many authors in one page. At most {@code perAuthor} posts of any single author
+     * are loaded by the batched query; an author that reaches the cap is reloaded on its own when the
+     * page needs its older posts.
+     */
+    public WebResponseDto<PostPageResponseDto> getPostsByAuthors(AuthorPostsRequestDto request) {
+        List<String> authorIds = request.getAuthorIds() == null ? List.of()
+                : request.getAuthorIds().stream().distinct().collect(Collectors.toList());
+        logger.info("Fetching posts for {} authors, limit: {}, perAuthor: {}, before: {}",
+                authorIds.size(), request.getLimit(), request.getPerAuthor(), request.getBefore());
+
+        if (authorIds.isEmpty() || authorIds.size() > MAX_AUTHORS) {
+            logger.warn("Rejected author batch of {} IDs", authorIds.size());
+            return WebResponseDto.<PostPageResponseDto>builder()
+                    .errors("Between 1 and " + MAX_AUTHORS + " author IDs are required.")
+                    .build();
+        }
+
+        int pageSize = request.getLimit() == null ? DEFAULT_PAGE_SIZE : Math.min(Math.max(request.getLimit(), 1), MAX_PAGE_SIZE);
+        // More than a page of one author can never be returned
+        int perAuthor = request.getPerAuthor() == null ? Math.min(DEFAULT_PER_AUTHOR, pageSize)
+                : Math.min(Math.max(request.getPerAuthor(), 1), pageSize);
+        PostCursor cursor;
+        try {
+            cursor = request.getBefore() == null ? null : PostCursor.decode(request.getBefore());
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid cursor for author batch: {}", request.getBefore());
+            return WebResponseDto.<PostPageResponseDto>builder()
+                    .errors("Invalid cursor.")
+                    .build();
+        }
+
+        try {
+            LocalDateTime createdAt = cursor == null ? AuthorPostsMerger.NEWEST : cursor.getCreatedAt();
+            String id = cursor == null ? "" : cursor.getId();
+
+            List<Post> pagePosts = new ArrayList<>(pageSize);
+            boolean hasMore = authorPostsMerger.merge(authorIds, createdAt, id, perAuthor, pageSize, pagePosts);
+
+            List<PostResponseDto> postResponses = postFeedAssembler.toResponses(pagePosts);
+
+            String nextCursor = null;
+            if (hasMore && !pagePosts.isEmpty()) {
+                Post last = pagePosts.get(pagePosts.size() - 1);
+                nextCursor = PostCursor.of(last.getCreatedAt(), last.getId()).encode();
+            }
+
+            logger.info("Successfully fetched {} posts for {} authors", postResponses.size(), authorIds.size());
+            return WebResponseDto.<PostPageResponseDto>builder()
+                    .data(PostPageResponseDto.builder()
+                            .posts(postResponses)
+                            .nextCursor(nextCursor)
+                            .build())
+                    .build();
+        } catch (Exception e) {
+            logger.error("Error fetching posts for {} authors. Exception: {}", authorIds.size(), e.getMessage());
+            return WebResponseDto.<PostPageResponseDto>builder()
                     .errors("An error occurred while fetching posts.")
                     .build();
         }
@@ -0,0 +1,107 @@
+package mini_twitter.post_service.service;
+
+import mini_twitter.post_service.dto.PostPageResponseDto;
+import mini_twitter.post_service.dto.PostResponseDto;
+import mini_twitter.post_service.dto.WebResponseDto;
+import mini_twitter.post_service.entity.Post;
+import mini_twitter.post_service.webclient.FollowServiceClient;
+import mini_twitter.post_service.webclient.UserServiceClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fan-out-on-read home timelines, for readers whose followings make a precomputed timeline wasteful.
+ * <p>
+ * A page is assembled at read time by {@link AuthorPostsMerger} from the newest {@code depth} posts of
+ * every followed author (and the reader); an author that may have more is reloaded on its own once the
+ * merge reaches its last loaded post.
+ * <p>
+ * The depth starts at roughly twice the author's fair share of a page and doubles with every page the
+ * reader has already scrolled, since deep readers tend to keep scrolling.
+ */
+@Service
+public class PullTimelineService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PullTimelineService.class);
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private static final int MIN_DEPTH = 5;
+
+    private static final int MAX_DEPTH_SHIFT = 4;
+
+    @Autowired
+    private AuthorPostsMerger authorPostsMerger;
+
+    @Autowired
+    private UserServiceClient userServiceClient;
+
+    @Autowired
+    private FollowServiceClient followServiceClient;
+
+    @Autowired
+    private PostFeedAssembler postFeedAssembler;
+
+    public WebResponseDto<PostPageResponseDto> getTimeline(String token, Integer limit, String before) {
+        String userId = userServiceClient.getUserIdFromToken(token);
+        logger.info("Assembling pull timeline for userId: {}, limit: {}, before: {}", userId, limit, before);
+
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        PostCursor cursor;
+        try {
+            cursor = before == null ? null : PostCursor.decode(before);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid timeline cursor for userId: {}: {}", userId, before);
+            return WebResponseDto.<PostPageResponseDto>builder()
+                    .errors("Invalid cursor.")
+                    .build();
+        }
+
+        try {
+            List<String> authorIds = new ArrayList<>(followServiceClient.getFollowingIds(userId));
+            authorIds.add(userId);
+
+            int scrolled = cursor == null ? 0 : cursor.getPage();
+            int depth = initialDepth(pageSize, authorIds.size(), scrolled);
+            LocalDateTime createdAt = cursor == null ? AuthorPostsMerger.NEWEST : cursor.getCreatedAt();
+            String id = cursor == null ? "" : cursor.getId();
+
+            List<Post> page = new ArrayList<>(pageSize);
+            boolean hasMore = authorPostsMerger.merge(authorIds, createdAt, id, depth, pageSize, page);
+
+            List<PostResponseDto> posts = postFeedAssembler.toResponses(page);
+
+            String nextCursor = null;
+            if (hasMore && !page.isEmpty()) {
+                Post last = page.get(page.size() - 1);
+                nextCursor = PostCursor.of(last.getCreatedAt(), last.getId(), scrolled + 1).encode();
+            }
+
+            logger.info("Assembled {} timeline posts for userId: {} from {} authors", posts.size(), userId, authorIds.size());
+            return WebResponseDto.<PostPageResponseDto>builder()
+                    .data(PostPageResponseDto.builder()
+                            .posts(posts)
+                            .nextCursor(nextCursor)
+                            .build())
+                    .build();
+        } catch (Exception e) {
+            logger.error("Error assembling pull timeline for userId: {}. Exception: {}", userId, e.getMessage());
+            return WebResponseDto.<PostPageResponseDto>builder()
+                    .errors("An error occurred while fetching the timeline.")
+                    .build();
+        }
+    }
+
+    private static int initialDepth(int pageSize, int authors, int scrolled) {
+        int fairShare = Math.max(MIN_DEPTH, (2 * pageSize + authors - 1) / authors);
+        return Math.min(pageSize, fairShare << Math.min(scrolled, MAX_DEPTH_SHIFT));
+    }
+}
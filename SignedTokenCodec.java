@@ -0,0 +1,139 @@
+package mini_twitter.user_service.security;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Issues and verifies compact HMAC-SHA256 signed access tokens of the form
+ * {@code v1.<base64url(userId:expiresAt:nonce)>.<base64url(hmac)>}.
+ * <p>
+ * The token carries everything a downstream service needs to authenticate a request, so it can be
+ * verified with the shared secret alone. Services that verify tokens keep a byte-for-byte compatible
+ * copy of {@link #verify(String)} (see {@code SignedTokenVerifier} in like-service).
+ */
+public class SignedTokenCodec {
+
+    public static final String PREFIX = "v1.";
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+
+    private final ThreadLocal<Mac> macs;
+
+    private final SecureRandom random = new SecureRandom();
+
+    public SignedTokenCodec(byte[] secret) {
+        if (secret == null || secret.length < 32) {
+            throw new IllegalArgumentException("Signing secret must be at least 32 bytes");
+        }
+        this.key = new SecretKeySpec(secret, ALGORITHM);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    public String issue(String userId, long expiresAt) {
+        byte[] nonce = new byte[8];
+        random.nextBytes(nonce);
+
+        String payload = userId + ":" + expiresAt + ":" + HexFormat.of().formatHex(nonce);
+        String body = PREFIX + ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        return body + "." + ENCODER.encodeToString(sign(body));
+    }
+
+    /**
+     * @return the claims of a well-formed token with a valid signature, or null. Expiry is not
+     * checked here so that callers can still read the expiry of a token they are revoking.
+     */
+    public Claims verify(String token) {
+        if (token == null || !token.startsWith(PREFIX)) {
+            return null;
+        }
+
+        int dot = token.lastIndexOf('.');
+        if (dot <= PREFIX.length()) {
+            return null;
+        }
+
+        String body = token.substring(0, dot);
+        try {
+            byte[] signature = DECODER.decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(signature, sign(body))) {
+                return null;
+            }
+
+            String payload = new String(DECODER.decode(body.substring(PREFIX.length())), StandardCharsets.UTF_8);
+            String[] parts = payload.split(":");
+            if (parts.length != 3) {
+                return null;
+            }
+            return new Claims(parts[0], Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public static boolean isSignedToken(String token) {
+        return token != null && token.startsWith(PREFIX);
+    }
+
+    /**
+     * Stable identifier of a token for denylists, so revocations can be stored and shared without
+     * storing the tokens themselves.
+     */
+    public static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private byte[] sign(String body) {
+        return macs.get().doFinal(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    public static final class Claims {
+
+        private final String userId;
+
+        private final long expiresAt;
+
+        public Claims(String userId, long expiresAt) {
+            this.userId = userId;
+            this.expiresAt = expiresAt;
+        }
+
+        public String getUserId() {
+            return userId;
+        }
+
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+
+        public boolean isExpired(long now) {
+            return expiresAt <= now;
+        }
+    }
+}
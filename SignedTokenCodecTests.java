@@ -0,0 +1,90 @@
+package mini_twitter.user_service.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SignedTokenCodecTests {
+
+	private static final byte[] SECRET = "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.UTF_8);
+
+	private final SignedTokenCodec codec = new SignedTokenCodec(SECRET);
+
+	@Test
+	void verifiesIssuedToken() {
+		long expiresAt = System.currentTimeMillis() + 60_000;
+		String token = codec.issue("user-1", expiresAt);
+
+		SignedTokenCodec.Claims claims = codec.verify(token);
+		assertNotNull(claims);
+		assertEquals("user-1", claims.getUserId());
+		assertEquals(expiresAt, claims.getExpiresAt());
+		assertTrue(SignedTokenCodec.isSignedToken(token));
+	}
+
+	@Test
+	void rejectsTamperedPayload() {
+		String token = codec.issue("user-1", System.currentTimeMillis() + 60_000);
+		int dot = token.lastIndexOf('.');
+		String forgedPayload = Base64.getUrlEncoder().withoutPadding()
+				.encodeToString(("user-2:" + Long.MAX_VALUE + ":00").getBytes(StandardCharsets.UTF_8));
+
+		assertNull(codec.verify(SignedTokenCodec.PREFIX + forgedPayload + token.substring(dot)));
+	}
+
+	@Test
+	void rejectsTamperedSignature() {
+		String token = codec.issue("user-1", System.currentTimeMillis() + 60_000);
+		// The first signature character carries six full bits, unlike the last one
+		int first = token.lastIndexOf('.') + 1;
+		String tampered = token.substring(0, first) + (token.charAt(first) == 'A' ? 'B' : 'A') + token.substring(first + 1);
+
+		assertNull(codec.verify(tampered));
+	}
+
+	@Test
+	void rejectsTokenSignedWithAnotherSecret() {
+		SignedTokenCodec other = new SignedTokenCodec("fedcba9876543210fedcba9876543210".getBytes(StandardCharsets.UTF_8));
+		String token = other.issue("user-1", System.currentTimeMillis() + 60_000);
+
+		assertNull(codec.verify(token));
+	}
+
+	@Test
+	void rejectsMalformedTokens() {
+		assertNull(codec.verify(null));
+		assertNull(codec.verify("3f2a9c1e-uuid-token"));
+		assertNull(codec.verify(SignedTokenCodec.PREFIX));
+		assertNull(codec.verify(SignedTokenCodec.PREFIX + "not base64!.sig"));
+		assertFalse(SignedTokenCodec.isSignedToken("3f2a9c1e-uuid-token"));
+	}
+
+	@Test
+	void reportsExpiryWithoutRejectingSignature() {
+		long expiresAt = System.currentTimeMillis() - 1;
+		SignedTokenCodec.Claims claims = codec.verify(codec.issue("user-1", expiresAt));
+
+		assertNotNull(claims);
+		assertTrue(claims.isExpired(System.currentTimeMillis()));
+		assertFalse(claims.isExpired(expiresAt - 1));
+	}
+
+	@Test
+	void hashIsStableAndDistinct() {
+		String first = codec.issue("user-1", System.currentTimeMillis() + 60_000);
+		String second = codec.issue("user-1", System.currentTimeMillis() + 60_000);
+
+		assertEquals(SignedTokenCodec.hash(first), SignedTokenCodec.hash(first));
+		assertNotEquals(SignedTokenCodec.hash(first), SignedTokenCodec.hash(second));
+		assertEquals(64, SignedTokenCodec.hash(first).length());
+	}
+
+	@Test
+	void rejectsShortSecret() {
+		assertThrows(IllegalArgumentException.class, () -> new SignedTokenCodec("short".getBytes(StandardCharsets.UTF_8)));
+	}
+
+}
@@ -0,0 +1,145 @@
+package mini_twitter.user_service.service;
+
+import jakarta.annotation.PostConstruct;
+import mini_twitter.user_service.entity.RevokedToken;
+import mini_twitter.user_service.repository.RevokedTokenRepository;
+import mini_twitter.user_service.security.SignedTokenCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Optional signed-token mode ({@code auth.signed-tokens.enabled=true}).
+ * <p>
+ * When enabled, login issues {@link SignedTokenCodec} tokens instead of random UUIDs so that other
+ * services can authenticate requests without calling {@code /api/users/me}. Logout, and a new login
+ * that supersedes the token, add it to a denylist kept until the token would have expired anyway.
+ * <p>
+ * The denylist is persisted in {@code revoked_tokens} by token hash and reloaded on startup; other
+ * services fetch it through {@link #getRevocations()} so a restart anywhere does not bring revoked
+ * tokens back.
+ */
+@Service
+public class SignedTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SignedTokenService.class);
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private final boolean enabled;
+
+    private final SignedTokenCodec codec;
+
+    // Revocations run after the logout or login commits, so they need a transaction of their own
+    private final TransactionTemplate revocationTransaction;
+
+    // Token hash -> expiry
+    private final Map<String, Long> denylist = new ConcurrentHashMap<>();
+
+    public SignedTokenService(@Value("${auth.signed-tokens.enabled:false}") boolean enabled,
+                              @Value("${auth.signed-tokens.secret:}") String secret,
+                              PlatformTransactionManager transactionManager) {
+        this.enabled = enabled;
+        this.revocationTransaction = new TransactionTemplate(transactionManager);
+        this.revocationTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.codec = enabled ? new SignedTokenCodec(secret.getBytes(StandardCharsets.UTF_8)) : null;
+        logger.info("Signed access tokens {}", enabled ? "enabled" : "disabled");
+    }
+
+    // Runs before the web server accepts requests, so no revoked token is accepted after a restart
+    @PostConstruct
+    public void loadRevocations() {
+        if (!enabled) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        int purged = revokedTokenRepository.deleteExpired(now);
+        for (RevokedToken revoked : revokedTokenRepository.findByExpiresAtGreaterThan(now)) {
+            denylist.put(revoked.getTokenHash(), revoked.getExpiresAt());
+        }
+        logger.info("Loaded {} revoked signed tokens, purged {} expired", denylist.size(), purged);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String issue(String userId, long expiresAt) {
+        return codec.issue(userId, expiresAt);
+    }
+
+    /**
+     * @return the userId of a valid, unexpired and unrevoked signed token, or null when the token
+     * has to be resolved through the database
+     */
+    public String resolveUserId(String token) {
+        if (!enabled || !SignedTokenCodec.isSignedToken(token)) {
+            return null;
+        }
+
+        SignedTokenCodec.Claims claims = codec.verify(token);
+        if (claims == null || claims.isExpired(System.currentTimeMillis())
+                || denylist.containsKey(SignedTokenCodec.hash(token))) {
+            return null;
+        }
+        return claims.getUserId();
+    }
+
+    /**
+     * @return whether the token was issued here and has not expired, whether or not it is revoked
+     */
+    public boolean isIssued(String token) {
+        if (!enabled || !SignedTokenCodec.isSignedToken(token)) {
+            return false;
+        }
+
+        SignedTokenCodec.Claims claims = codec.verify(token);
+        return claims != null && !claims.isExpired(System.currentTimeMillis());
+    }
+
+    public void revoke(String token) {
+        if (!enabled || !SignedTokenCodec.isSignedToken(token)) {
+            return;
+        }
+
+        SignedTokenCodec.Claims claims = codec.verify(token);
+        if (claims == null) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        denylist.values().removeIf(expiresAt -> expiresAt <= now);
+        if (!claims.isExpired(now)) {
+            String tokenHash = SignedTokenCodec.hash(token);
+            denylist.put(tokenHash, claims.getExpiresAt());
+            revocationTransaction.executeWithoutResult(status ->
+                    revokedTokenRepository.save(new RevokedToken(tokenHash, claims.getExpiresAt())));
+        }
+    }
+
+    /**
+     * @return hashes of the revoked, not yet expired signed tokens with their expiry
+     */
+    public Map<String, Long> getRevocations() {
+        long now = System.currentTimeMillis();
+        Map<String, Long> revocations = new HashMap<>();
+        denylist.forEach((tokenHash, expiresAt) -> {
+            if (expiresAt > now) {
+                revocations.put(tokenHash, expiresAt);
+            }
+        });
+        return revocations;
+    }
+}
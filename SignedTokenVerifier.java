@@ -0,0 +1,175 @@
+package mini_twitter.like_service.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local verifier for the signed access tokens issued by user-service when
+ * {@code auth.signed-tokens.enabled=true}. Must stay compatible with user-service's
+ * {@code SignedTokenCodec}: {@code v1.<base64url(userId:expiresAt:nonce)>.<base64url(hmac)>}.
+ * <p>
+ * Revoked tokens arrive through the logout invalidation push and are denylisted by token hash until
+ * they expire. The denylist only lives in memory, so it is also synced from user-service (see
+ * {@code UserServiceClient.syncRevokedTokens}). Until the first sync succeeds {@link #isSynced()} is
+ * false and callers must resolve signed tokens through user-service instead, since one revoked before a
+ * restart would otherwise verify again.
+ */
+@Component
+public class SignedTokenVerifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(SignedTokenVerifier.class);
+
+    private static final String PREFIX = "v1.";
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final boolean enabled;
+
+    private final ThreadLocal<Mac> macs;
+
+    // Token hash -> expiry
+    private final Map<String, Long> denylist = new ConcurrentHashMap<>();
+
+    private volatile boolean synced;
+
+    public SignedTokenVerifier(@Value("${auth.signed-tokens.enabled:false}") boolean enabled,
+                               @Value("${auth.signed-tokens.secret:}") String secret) {
+        this.enabled = enabled;
+        if (enabled && secret.getBytes(StandardCharsets.UTF_8).length < 32) {
+            throw new IllegalArgumentException("Signing secret must be at least 32 bytes");
+        }
+
+        SecretKeySpec key = enabled ? new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM) : null;
+        this.macs = ThreadLocal.withInitial(() -> newMac(key));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isSignedToken(String token) {
+        return enabled && token != null && token.startsWith(PREFIX);
+    }
+
+    /**
+     * @return whether the denylist has been synced from user-service at least once
+     */
+    public boolean isSynced() {
+        return synced;
+    }
+
+    /**
+     * @return the userId of a valid, unexpired and unrevoked token, or null. Only meaningful once
+     * {@link #isSynced()}.
+     */
+    public String verify(String token) {
+        String[] claims = claims(token);
+        if (claims == null || expiry(claims) <= System.currentTimeMillis() || denylist.containsKey(hash(token))) {
+            return null;
+        }
+        return claims[0];
+    }
+
+    public void revoke(String token) {
+        String[] claims = claims(token);
+        if (claims == null) {
+            return;
+        }
+
+        long expiresAt = expiry(claims);
+        long now = System.currentTimeMillis();
+
+        denylist.values().removeIf(expiry -> expiry <= now);
+        if (expiresAt > now) {
+            denylist.put(hash(token), expiresAt);
+            logger.debug("Signed token revoked until {}", expiresAt);
+        }
+    }
+
+    /**
+     * Merges the revocations fetched from user-service, keyed by token hash.
+     */
+    public void revokeAll(Map<String, Long> revocations) {
+        long now = System.currentTimeMillis();
+        denylist.values().removeIf(expiry -> expiry <= now);
+        revocations.forEach((tokenHash, expiresAt) -> {
+            if (expiresAt > now) {
+                denylist.put(tokenHash, expiresAt);
+            }
+        });
+        if (!synced) {
+            synced = true;
+            logger.info("Synced {} revoked signed tokens", denylist.size());
+        }
+    }
+
+    // Same as SignedTokenCodec.hash in user-service
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static long expiry(String[] claims) {
+        try {
+            return Long.parseLong(claims[1]);
+        } catch (NumberFormatException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+
+    private String[] claims(String token) {
+        if (!isSignedToken(token)) {
+            return null;
+        }
+
+        int dot = token.lastIndexOf('.');
+        if (dot <= PREFIX.length()) {
+            return null;
+        }
+
+        String body = token.substring(0, dot);
+        try {
+            byte[] signature = Base64.getUrlDecoder().decode(token.substring(dot + 1));
+            byte[] expected = macs.get().doFinal(body.getBytes(StandardCharsets.UTF_8));
+            if (!MessageDigest.isEqual(signature, expected)) {
+                return null;
+            }
+
+            String payload = new String(Base64.getUrlDecoder().decode(body.substring(PREFIX.length())), StandardCharsets.UTF_8);
+            String[] parts = payload.split(":");
+            return parts.length == 3 ? parts : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static Mac newMac(SecretKeySpec key) {
+        if (key == null) {
+            return null;
+        }
+
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package mini_twitter.post_service.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent computations of the same key into one: the first caller (the leader) runs the
+ * supplier on its own thread, callers that arrive while it runs wait for and share its result or
+ * exception. Nothing is kept once the leader finishes, so this is not a cache.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder leaders = new LongAdder();
+
+    private final LongAdder collapsed = new LongAdder();
+
+    public V execute(K key, Supplier<V> supplier) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            collapsed.increment();
+            return await(existing);
+        }
+
+        leaders.increment();
+        try {
+            V value = supplier.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /**
+     * Makes callers arriving from now on start a new computation instead of joining the running one,
+     * for when the running one may already be working from outdated data.
+     */
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    public long leaders() {
+        return leaders.sum();
+    }
+
+    public long collapsed() {
+        return collapsed.sum();
+    }
+
+    private static <V> V await(CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package mini_twitter.post_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class SingleFlightStatsDto {
+
+    // Post details being loaded right now
+    private int inFlight;
+
+    // Loads actually run
+    private long leaders;
+
+    // Requests that waited for another request's load instead of running their own
+    private long collapsed;
+}
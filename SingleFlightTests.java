@@ -0,0 +1,131 @@
+package mini_twitter.post_service.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTests {
+
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+
+	@AfterEach
+	void shutdown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void collapsesConcurrentCallsIntoOne() throws Exception {
+		SingleFlight<String, String> flight = new SingleFlight<>();
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger runs = new AtomicInteger();
+
+		Future<String> leader = executor.submit(() -> flight.execute("post-1", () -> {
+			runs.incrementAndGet();
+			await(release);
+			return "detail";
+		}));
+		awaitTrue(() -> flight.inFlight() == 1);
+
+		List<Future<String>> followers = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			followers.add(executor.submit(() -> flight.execute("post-1", () -> {
+				runs.incrementAndGet();
+				return "duplicate";
+			})));
+		}
+		awaitTrue(() -> flight.collapsed() == 20);
+		release.countDown();
+
+		assertEquals("detail", leader.get(5, TimeUnit.SECONDS));
+		for (Future<String> follower : followers) {
+			assertEquals("detail", follower.get(5, TimeUnit.SECONDS));
+		}
+		assertEquals(1, runs.get());
+		assertEquals(1, flight.leaders());
+		assertEquals(0, flight.inFlight());
+	}
+
+	@Test
+	void sharesTheLeadersException() throws Exception {
+		SingleFlight<String, String> flight = new SingleFlight<>();
+		CountDownLatch release = new CountDownLatch(1);
+
+		Future<String> leader = executor.submit(() -> flight.execute("post-1", () -> {
+			await(release);
+			throw new IllegalStateException("comment-service down");
+		}));
+		awaitTrue(() -> flight.inFlight() == 1);
+		Future<String> follower = executor.submit(() -> flight.execute("post-1", () -> "unused"));
+		awaitTrue(() -> flight.collapsed() == 1);
+		release.countDown();
+
+		for (Future<String> call : List.of(leader, follower)) {
+			ExecutionException e = assertThrows(ExecutionException.class, () -> call.get(5, TimeUnit.SECONDS));
+			assertInstanceOf(IllegalStateException.class, e.getCause());
+		}
+		assertEquals(0, flight.inFlight());
+	}
+
+	@Test
+	void forgetStartsANewComputation() throws Exception {
+		SingleFlight<String, String> flight = new SingleFlight<>();
+		CountDownLatch release = new CountDownLatch(1);
+
+		Future<String> outdated = executor.submit(() -> flight.execute("post-1", () -> {
+			await(release);
+			return "outdated";
+		}));
+		awaitTrue(() -> flight.inFlight() == 1);
+
+		flight.forget("post-1");
+		assertEquals("fresh", flight.execute("post-1", () -> "fresh"));
+		assertEquals(2, flight.leaders());
+		assertEquals(0, flight.collapsed());
+
+		release.countDown();
+		assertEquals("outdated", outdated.get(5, TimeUnit.SECONDS));
+		assertEquals(0, flight.inFlight());
+	}
+
+	@Test
+	void doesNotCacheResults() {
+		SingleFlight<String, Integer> flight = new SingleFlight<>();
+		AtomicInteger runs = new AtomicInteger();
+
+		flight.execute("post-1", runs::incrementAndGet);
+		flight.execute("post-1", runs::incrementAndGet);
+
+		assertEquals(2, runs.get());
+		assertEquals(0, flight.collapsed());
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			assertTrue(latch.await(5, TimeUnit.SECONDS));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condition.getAsBoolean()) {
+			assertTrue(System.nanoTime() < deadline, "condition not reached in time");
+			Thread.sleep(1);
+		}
+	}
+
+}
@@ -0,0 +1,20 @@
+package mini_twitter.follow_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class SuggestionDto {
+
+    private String userId;
+
+    // Number of the viewer's followed accounts seen following this user. A lower bound when the
+    // traversal was sampled; suggestions are ranked by a scaled-up estimate instead
+    private long mutualFollows;
+
+}
@@ -0,0 +1,255 @@
+package mini_twitter.follow_service.service;
+
+import jakarta.annotation.PreDestroy;
+import mini_twitter.follow_service.dto.SuggestionDto;
+import mini_twitter.follow_service.dto.WebResponseDto;
+import mini_twitter.follow_service.repository.FollowRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * "Who to follow": accounts followed by the people a user follows, ranked by how many of them follow
+ * the account.
+ * <p>
+ * The traversal is bounded: at most {@code follows.suggestions.max-first-degree} followed accounts are
+ * visited (sampled when the user follows more), and at most {@code follows.suggestions.max-fan-out}
+ * of each one's followings are counted, scaled up by the sampling ratio so that scores stay comparable.
+ * Candidates are ranked by that estimate but report the mutual follows actually observed.
+ * Followed accounts are scanned in parallel on a small bounded pool. Scores are cached per user for
+ * {@code follows.suggestions.ttl-ms}; a follow adds the new account's followings to the cached scores
+ * instead of dropping them, an unfollow evicts them.
+ */
+@Service
+public class SuggestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SuggestionService.class);
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private static final int MAX_LIMIT = 100;
+
+    private static final int FRIENDS_PER_TASK = 32;
+
+    @Autowired
+    private FollowGraph followGraph;
+
+    @Autowired
+    private FollowRepository followRepository;
+
+    private final int maxFirstDegree;
+
+    private final int maxFanOut;
+
+    private final long ttlMillis;
+
+    private final ThreadPoolExecutor traversalExecutor;
+
+    private final Map<String, Suggestions> cache;
+
+    public SuggestionService(@Value("${follows.suggestions.max-first-degree:200}") int maxFirstDegree,
+                             @Value("${follows.suggestions.max-fan-out:200}") int maxFanOut,
+                             @Value("${follows.suggestions.ttl-ms:600000}") long ttlMillis,
+                             @Value("${follows.suggestions.cache-size:10000}") int cacheSize,
+                             @Value("${follows.suggestions.threads:4}") int threads) {
+        this.maxFirstDegree = maxFirstDegree;
+        this.maxFanOut = maxFanOut;
+        this.ttlMillis = ttlMillis;
+        // Runs overflow work on the request thread rather than queueing without bound
+        this.traversalExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 16), new ThreadPoolExecutor.CallerRunsPolicy());
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Suggestions> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        traversalExecutor.shutdownNow();
+    }
+
+    public WebResponseDto<List<SuggestionDto>> getSuggestions(String userId, Integer limit) {
+        logger.info("Fetching suggestions for User ID: {}, limit: {}", userId, limit);
+        int size = limit == null ? DEFAULT_LIMIT : Math.min(Math.max(limit, 1), MAX_LIMIT);
+
+        Suggestions suggestions = cache.get(userId);
+        if (suggestions == null || suggestions.expiresAt <= System.currentTimeMillis()) {
+            suggestions = compute(userId);
+            cache.put(userId, suggestions);
+        }
+
+        return WebResponseDto.<List<SuggestionDto>>builder().data(suggestions.top(size)).build();
+    }
+
+    /**
+     * Called from {@code FollowService.followUser}; folds the new account's followings into the
+     * follower's cached scores once the follow commits.
+     */
+    public void onFollowed(String userId, String followerId) {
+        afterCommit(() -> {
+            Suggestions suggestions = cache.get(followerId);
+            if (suggestions != null) {
+                List<String> secondDegree = followingOf(userId);
+                double weight = sampleWeight(secondDegree.size()) * suggestions.firstDegreeWeight;
+                suggestions.addFollowing(userId, sample(secondDegree, maxFanOut), weight);
+            }
+        });
+    }
+
+    public void onUnfollowed(String followerId) {
+        afterCommit(() -> cache.remove(followerId));
+    }
+
+    private Suggestions compute(String userId) {
+        long start = System.currentTimeMillis();
+        List<String> following = followingOf(userId);
+        List<String> visited = sample(following, maxFirstDegree);
+
+        List<CompletableFuture<Map<String, Tally>>> tasks = new ArrayList<>();
+        for (int from = 0; from < visited.size(); from += FRIENDS_PER_TASK) {
+            List<String> friends = visited.subList(from, Math.min(from + FRIENDS_PER_TASK, visited.size()));
+            tasks.add(CompletableFuture.supplyAsync(() -> countSecondDegree(friends), traversalExecutor));
+        }
+
+        // Each visited account stands for following.size() / visited.size() accounts when sampled
+        double firstDegreeWeight = (double) following.size() / Math.max(visited.size(), 1);
+        Suggestions suggestions = new Suggestions(userId, new HashSet<>(following), firstDegreeWeight,
+                System.currentTimeMillis() + ttlMillis);
+        for (CompletableFuture<Map<String, Tally>> task : tasks) {
+            task.join().forEach((candidate, tally) ->
+                    suggestions.add(candidate, tally.score * firstDegreeWeight, tally.mutualFollows));
+        }
+
+        logger.info("Computed {} suggestion candidates for User ID: {} from {} of {} followed accounts in {} ms",
+                suggestions.candidates.size(), userId, visited.size(), following.size(), System.currentTimeMillis() - start);
+        return suggestions;
+    }
+
+    private Map<String, Tally> countSecondDegree(List<String> friends) {
+        Map<String, Tally> tallies = new HashMap<>();
+        for (String friend : friends) {
+            List<String> secondDegree = followingOf(friend);
+            double weight = sampleWeight(secondDegree.size());
+            for (String candidate : sample(secondDegree, maxFanOut)) {
+                Tally tally = tallies.computeIfAbsent(candidate, key -> new Tally());
+                tally.score += weight;
+                tally.mutualFollows++;
+            }
+        }
+        return tallies;
+    }
+
+    private List<String> followingOf(String userId) {
+        return followGraph.isReady()
+                ? followGraph.getFollowingIds(userId)
+                : followRepository.findFollowingIdsByFollowerId(userId);
+    }
+
+    private double sampleWeight(int degree) {
+        return degree > maxFanOut ? (double) degree / maxFanOut : 1.0;
+    }
+
+    // Uniform sample without replacement (partial Fisher-Yates); the list itself when small enough
+    private static List<String> sample(List<String> ids, int max) {
+        if (ids.size() <= max) {
+            return ids;
+        }
+        List<String> copy = new ArrayList<>(ids);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < max; i++) {
+            Collections.swap(copy, i, i + random.nextInt(copy.size() - i));
+        }
+        return copy.subList(0, max);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static final class Tally {
+
+        // Estimated mutual follows, scaled up for sampling; used for ranking
+        private double score;
+
+        // Visited accounts actually seen following the candidate
+        private int mutualFollows;
+    }
+
+    private static final class Suggestions {
+
+        private final String userId;
+
+        private final Set<String> following;
+
+        private final double firstDegreeWeight;
+
+        private final Map<String, Tally> candidates = new HashMap<>();
+
+        private final long expiresAt;
+
+        private Suggestions(String userId, Set<String> following, double firstDegreeWeight, long expiresAt) {
+            this.userId = userId;
+            this.following = following;
+            this.firstDegreeWeight = firstDegreeWeight;
+            this.expiresAt = expiresAt;
+        }
+
+        private synchronized void add(String candidate, double score, int mutualFollows) {
+            if (!candidate.equals(userId) && !following.contains(candidate)) {
+                Tally tally = candidates.computeIfAbsent(candidate, key -> new Tally());
+                tally.score += score;
+                tally.mutualFollows += mutualFollows;
+            }
+        }
+
+        private synchronized void addFollowing(String followed, List<String> secondDegree, double weight) {
+            following.add(followed);
+            candidates.remove(followed);
+            secondDegree.forEach(candidate -> add(candidate, weight, 1));
+        }
+
+        private synchronized List<SuggestionDto> top(int limit) {
+            return candidates.entrySet().stream()
+                    .sorted(Comparator.<Map.Entry<String, Tally>>comparingDouble(entry -> -entry.getValue().score)
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .limit(limit)
+                    .map(entry -> SuggestionDto.builder()
+                            .userId(entry.getKey())
+                            .mutualFollows(entry.getValue().mutualFollows)
+                            .build())
+                    .collect(Collectors.toList());
+        }
+    }
+}
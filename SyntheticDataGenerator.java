@@ -0,0 +1,438 @@
+package mini_twitter.like_service.seed;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Loads a large, realistically shaped data set into the five service databases for capacity testing.
+ * <p>
+ * Run it against schemas created by the services. Start each service once with the {@code seeded}
+ * profile, which keeps the tables on shutdown ({@code ddl-auto: update} instead of create-drop) and
+ * skips the demo rows, stop it, run the generator, then start the services again with that profile.
+ * The classes sit inside the repackaged Spring Boot jar, so it is launched through PropertiesLauncher:
+ * <pre>
+ * java -cp like-service.jar -Dloader.main=mini_twitter.like_service.seed.SyntheticDataGenerator \
+ *     org.springframework.boot.loader.launch.PropertiesLauncher \
+ *     --users=1000000 --posts-per-user=20 --likes=50000000 --threads=16 \
+ *     --user-db=jdbc:mysql://localhost:3306/user-service-db ...
+ * </pre>
+ * The shape: follower counts follow a power law (a few users followed by a large share of the graph,
+ * out-degrees Pareto distributed); likes and comments pick posts from a Zipf distribution. Every id is
+ * derived from {@code --seed} and the row index, and every chunk of rows uses its own seeded
+ * {@link Random}, so the same options always produce the same data regardless of thread count, and
+ * ids line up across the five databases. Rows are written with INSERT IGNORE in JDBC batches by
+ * {@code --threads} workers, each on its own connection.
+ */
+public class SyntheticDataGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    // BCrypt (cost 10) of "password", so every generated user can log in without hashing millions of times
+    private static final String PASSWORD_HASH = "$2a$10$UfZ2Jp.Tj/zVmKGbBujlqOaE8YGa/.6UEmgJ20wcstz.zIJpCbBtu";
+
+    private static final int CHUNK_SIZE = 10_000;
+
+    private static final int HISTORY_DAYS = 90;
+
+    private static final long USER = 1, FOLLOW = 2, POST = 3, COMMENT = 4, POST_LIKE = 5, COMMENT_LIKE = 6;
+
+    private final Map<String, String> options;
+
+    private final long seed;
+
+    private final int users;
+
+    private final int postsPerUser;
+
+    private final long totalPosts;
+
+    private final double avgFollows;
+
+    private final int maxFollows;
+
+    private final long comments;
+
+    private final long likes;
+
+    private final long commentLikes;
+
+    private final int threads;
+
+    private final int batchSize;
+
+    private final double zipfExponent;
+
+    private final LocalDateTime now = LocalDateTime.now().withNano(0);
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        new SyntheticDataGenerator(options).run();
+    }
+
+    public SyntheticDataGenerator(Map<String, String> options) {
+        this.options = options;
+        this.seed = Long.parseLong(option("seed", "42"));
+        this.users = Integer.parseInt(option("users", "100000"));
+        this.postsPerUser = Integer.parseInt(option("posts-per-user", "20"));
+        this.totalPosts = (long) users * postsPerUser;
+        this.avgFollows = Double.parseDouble(option("avg-follows", "50"));
+        this.maxFollows = Integer.parseInt(option("max-follows", "5000"));
+        this.comments = Long.parseLong(option("comments", String.valueOf(totalPosts)));
+        this.likes = Long.parseLong(option("likes", String.valueOf(totalPosts * 5)));
+        this.commentLikes = Long.parseLong(option("comment-likes", String.valueOf(comments)));
+        this.threads = Integer.parseInt(option("threads", String.valueOf(Runtime.getRuntime().availableProcessors())));
+        this.batchSize = Integer.parseInt(option("batch-size", "1000"));
+        this.zipfExponent = Double.parseDouble(option("zipf-exponent", "1.1"));
+    }
+
+    public void run() throws Exception {
+        long start = System.currentTimeMillis();
+        logger.info("Generating {} users, {} posts, {} comments, {} post likes, {} comment likes with {} threads",
+                users, totalPosts, comments, likes, commentLikes, threads);
+
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        try {
+            load(workers, "users", "user-db", users, this::writeUsers);
+            load(workers, "follows", "follow-db", users, this::writeFollows);
+            load(workers, "posts", "post-db", users, this::writePosts);
+            load(workers, "comments", "comment-db", comments, this::writeComments);
+            load(workers, "post_likes", "like-db", likes, this::writePostLikes);
+            load(workers, "comment_likes", "like-db", commentLikes, this::writeCommentLikes);
+        } finally {
+            workers.shutdownNow();
+        }
+        fillLikeCounters();
+        fillFollowCounters();
+
+        logger.info("Synthetic data loaded in {} s", (System.currentTimeMillis() - start) / 1000);
+    }
+
+    private void writeUsers(Connection connection, long from, long to, Random random) throws SQLException {
+        try (Batch batch = new Batch(connection, "INSERT IGNORE INTO users " +
+                "(id, username, email, password, name, bio, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (long user = from; user < to; user++) {
+                Timestamp createdAt = pastTimestamp(random, HISTORY_DAYS * 2);
+                batch.add(id(USER, user), "user" + user, "user" + user + "@example.com", PASSWORD_HASH,
+                        "User " + user, null, createdAt, createdAt);
+            }
+        }
+    }
+
+    // Out-degrees are Pareto distributed (shape 1.5, mean avg-follows); targets are drawn by Zipf rank,
+    // so low user indexes end up with very large follower counts
+    private void writeFollows(Connection connection, long from, long to, Random random) throws SQLException {
+        double shape = 1.5;
+        double minDegree = avgFollows * (shape - 1) / shape;
+        ZipfSampler targets = new ZipfSampler(users, zipfExponent);
+
+        try (Batch batch = new Batch(connection, "INSERT IGNORE INTO follows " +
+                "(id, user_id, follower_id, created_at) VALUES (?, ?, ?, ?)")) {
+            Set<Long> followed = new HashSet<>();
+            for (long follower = from; follower < to; follower++) {
+                double degree = minDegree * Math.pow(1 - random.nextDouble(), -1 / shape);
+                int count = (int) Math.min(Math.min(degree, maxFollows), users - 1);
+
+                followed.clear();
+                for (int attempt = 0; followed.size() < count && attempt < count * 3; attempt++) {
+                    long target = targets.sample(random) - 1;
+                    if (target != follower && followed.add(target)) {
+                        batch.add(id(FOLLOW, follower * maxFollows + followed.size()), id(USER, target),
+                                id(USER, follower), pastTimestamp(random, HISTORY_DAYS));
+                    }
+                }
+            }
+        }
+    }
+
+    private void writePosts(Connection connection, long from, long to, Random random) throws SQLException {
+        try (Batch batch = new Batch(connection, "INSERT IGNORE INTO posts " +
+                "(id, user_id, content, created_at, updated_at) VALUES (?, ?, ?, ?, ?)")) {
+            for (long user = from; user < to; user++) {
+                for (int n = 0; n < postsPerUser; n++) {
+                    long post = user * postsPerUser + n;
+                    Timestamp createdAt = pastTimestamp(random, HISTORY_DAYS);
+                    batch.add(id(POST, post), id(USER, user), "Synthetic post " + n + " by user" + user,
+                            createdAt, createdAt);
+                }
+            }
+        }
+    }
+
+    private void writeComments(Connection connection, long from, long to, Random random) throws SQLException {
+        ZipfSampler posts = new ZipfSampler(totalPosts, zipfExponent);
+        try (Batch batch = new Batch(connection, "INSERT IGNORE INTO comments " +
+                "(id, user_id, post_id, comment, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (long comment = from; comment < to; comment++) {
+                Timestamp createdAt = pastTimestamp(random, HISTORY_DAYS);
+                batch.add(id(COMMENT, comment), id(USER, random.nextInt(users)),
+                        id(POST, posts.sampleIndex(random)), "Synthetic comment " + comment,
+                        createdAt, createdAt);
+            }
+        }
+    }
+
+    private void writePostLikes(Connection connection, long from, long to, Random random) throws SQLException {
+        ZipfSampler posts = new ZipfSampler(totalPosts, zipfExponent);
+        try (Batch batch = new Batch(connection, "INSERT IGNORE INTO post_likes " +
+                "(id, post_id, user_id, created_at) VALUES (?, ?, ?, ?)")) {
+            for (long like = from; like < to; like++) {
+                batch.add(id(POST_LIKE, like), id(POST, posts.sampleIndex(random)),
+                        id(USER, random.nextInt(users)), pastTimestamp(random, HISTORY_DAYS));
+            }
+        }
+    }
+
+    private void writeCommentLikes(Connection connection, long from, long to, Random random) throws SQLException {
+        ZipfSampler commentRanks = new ZipfSampler(comments, zipfExponent);
+        try (Batch batch = new Batch(connection, "INSERT IGNORE INTO comment_likes " +
+                "(id, comment_id, user_id, created_at) VALUES (?, ?, ?, ?)")) {
+            for (long like = from; like < to; like++) {
+                batch.add(id(COMMENT_LIKE, like), id(COMMENT, commentRanks.sampleIndex(random)),
+                        id(USER, random.nextInt(users)), pastTimestamp(random, HISTORY_DAYS));
+            }
+        }
+    }
+
+    // Same statements as the like-service counter repositories' recomputeAll
+    private void fillLikeCounters() throws SQLException {
+        long start = System.currentTimeMillis();
+        try (Connection connection = connect("like-db"); Statement statement = connection.createStatement()) {
+            statement.executeUpdate("INSERT INTO post_like_counts (post_id, like_count) " +
+                    "SELECT * FROM (SELECT post_id, COUNT(*) AS cnt FROM post_likes GROUP BY post_id) AS actual " +
+                    "ON DUPLICATE KEY UPDATE like_count = actual.cnt");
+            statement.executeUpdate("INSERT INTO comment_like_counts (comment_id, like_count) " +
+                    "SELECT * FROM (SELECT comment_id, COUNT(*) AS cnt FROM comment_likes GROUP BY comment_id) AS actual " +
+                    "ON DUPLICATE KEY UPDATE like_count = actual.cnt");
+        }
+        logger.info("Filled like counters in {} ms", System.currentTimeMillis() - start);
+    }
+
+    private void fillFollowCounters() throws SQLException {
+        long start = System.currentTimeMillis();
+        try (Connection connection = connect("follow-db"); Statement statement = connection.createStatement()) {
+            statement.executeUpdate("INSERT INTO follow_counts (user_id, follower_count, following_count) " +
+                    "SELECT * FROM (SELECT user_id, COUNT(*) AS cnt, 0 AS zero FROM follows GROUP BY user_id) AS actual " +
+                    "ON DUPLICATE KEY UPDATE follower_count = actual.cnt");
+            statement.executeUpdate("INSERT INTO follow_counts (user_id, follower_count, following_count) " +
+                    "SELECT * FROM (SELECT follower_id, 0 AS zero, COUNT(*) AS cnt FROM follows GROUP BY follower_id) AS actual " +
+                    "ON DUPLICATE KEY UPDATE following_count = actual.cnt");
+        }
+        logger.info("Filled follow counters in {} ms", System.currentTimeMillis() - start);
+    }
+
+    private void load(ExecutorService workers, String table, String database, long total, ChunkWriter writer)
+            throws Exception {
+        long start = System.currentTimeMillis();
+        long tableSalt = table.hashCode();
+
+        List<Future<?>> chunks = new ArrayList<>();
+        for (long from = 0; from < total; from += CHUNK_SIZE) {
+            long chunkFrom = from;
+            long chunkTo = Math.min(from + CHUNK_SIZE, total);
+            chunks.add(workers.submit(() -> {
+                try (Connection connection = connect(database)) {
+                    connection.setAutoCommit(false);
+                    writer.write(connection, chunkFrom, chunkTo, new Random(mix(seed ^ tableSalt, chunkFrom)));
+                    connection.commit();
+                }
+                return null;
+            }));
+        }
+        for (Future<?> chunk : chunks) {
+            chunk.get();
+        }
+
+        logger.info("Loaded {} {} units in {} ms", total, table, System.currentTimeMillis() - start);
+    }
+
+    private Connection connect(String database) throws SQLException {
+        String url = options.get(database);
+        if (url == null) {
+            throw new IllegalArgumentException("Missing --" + database + "=<jdbc url>");
+        }
+        // Lets the MySQL driver send each JDBC batch as multi-row INSERT statements
+        if (!url.contains("rewriteBatchedStatements")) {
+            url += (url.contains("?") ? "&" : "?") + "rewriteBatchedStatements=true";
+        }
+        return DriverManager.getConnection(url, option("db-user", "root"), option("db-password", "root"));
+    }
+
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    private String id(long kind, long index) {
+        long high = mix(seed * 31 + kind, index);
+        long low = mix(~seed * 31 + kind, index);
+        // Version 4 / IETF variant bits, so the ids look like the UUID.randomUUID() ids the services create
+        high = (high & 0xffffffffffff0fffL) | 0x0000000000004000L;
+        low = (low & 0x3fffffffffffffffL) | 0x8000000000000000L;
+        return new UUID(high, low).toString();
+    }
+
+    private Timestamp pastTimestamp(Random random, int days) {
+        return Timestamp.valueOf(now.minusSeconds((long) (random.nextDouble() * days * 86_400)));
+    }
+
+    private static long mix(long a, long b) {
+        long z = a * 0x9E3779B97F4A7C15L + b;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter {
+
+        void write(Connection connection, long from, long to, Random random) throws SQLException;
+    }
+
+    /**
+     * PreparedStatement wrapper that executes and commits every {@code batchSize} rows.
+     */
+    private final class Batch implements AutoCloseable {
+
+        private final Connection connection;
+
+        private final PreparedStatement statement;
+
+        private int pending;
+
+        private Batch(Connection connection, String sql) throws SQLException {
+            this.connection = connection;
+            this.statement = connection.prepareStatement(sql);
+        }
+
+        private void add(Object... values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                statement.setObject(i + 1, values[i]);
+            }
+            statement.addBatch();
+            if (++pending == batchSize) {
+                flush();
+            }
+        }
+
+        private void flush() throws SQLException {
+            if (pending > 0) {
+                statement.executeBatch();
+                connection.commit();
+                pending = 0;
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                flush();
+            } finally {
+                statement.close();
+            }
+        }
+    }
+
+    /**
+     * Zipf(n, s) sampler using rejection-inversion (Hormann and Derflinger), O(1) memory and time per
+     * sample, so it works for tens of millions of ranks. Returns ranks in [1, n].
+     */
+    private static final class ZipfSampler {
+
+        private final long n;
+
+        private final double exponent;
+
+        private final double hIntegralX1;
+
+        private final double hIntegralN;
+
+        private final double s;
+
+        private final long stride;
+
+        private ZipfSampler(long n, double exponent) {
+            this.n = n;
+            this.exponent = exponent;
+            this.hIntegralX1 = hIntegral(1.5) - 1;
+            this.hIntegralN = hIntegral(n + 0.5);
+            this.s = 2 - hIntegralInverse(hIntegral(2.5) - h(2));
+
+            long candidate = Math.max(1, (long) (n * 0.6180339887));
+            while (gcd(candidate, n) != 1) {
+                candidate++;
+            }
+            this.stride = candidate;
+        }
+
+        /**
+         * @return a 0-based row index; ranks are spread over [0, n) by a coprime stride so that the most
+         * popular rows are not simply the first ones (e.g. all posts of the first user)
+         */
+        private long sampleIndex(Random random) {
+            return (sample(random) - 1) * stride % n;
+        }
+
+        private long sample(Random random) {
+            while (true) {
+                double u = hIntegralN + random.nextDouble() * (hIntegralX1 - hIntegralN);
+                double x = hIntegralInverse(u);
+                long k = Math.max(1, Math.min(n, (long) (x + 0.5)));
+                if (k - x <= s || u >= hIntegral(k + 0.5) - h(k)) {
+                    return k;
+                }
+            }
+        }
+
+        private double h(double x) {
+            return Math.exp(-exponent * Math.log(x));
+        }
+
+        private double hIntegral(double x) {
+            double logX = Math.log(x);
+            return helper2((1 - exponent) * logX) * logX;
+        }
+
+        private double hIntegralInverse(double x) {
+            double t = Math.max(x * (1 - exponent), -1);
+            return Math.exp(helper1(t) * x);
+        }
+
+        // log1p(x) / x, continuous at 0
+        private static double helper1(double x) {
+            return Math.abs(x) > 1e-8 ? Math.log1p(x) / x : 1 - x * (0.5 - x * (1.0 / 3 - 0.25 * x));
+        }
+
+        private static long gcd(long a, long b) {
+            return b == 0 ? a : gcd(b, a % b);
+        }
+
+        // expm1(x) / x, continuous at 0
+        private static double helper2(double x) {
+            return Math.abs(x) > 1e-8 ? Math.expm1(x) / x : 1 + x * 0.5 * (1 + x / 3 * (1 + 0.25 * x));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package mini_twitter.post_service.controller;
+
+import mini_twitter.post_service.dto.PostPageResponseDto;
+import mini_twitter.post_service.dto.WebResponseDto;
+import mini_twitter.post_service.service.PullTimelineService;
+import mini_twitter.post_service.service.TimelineService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+public class TimelineController {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimelineController.class);
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private PullTimelineService pullTimelineService;
+
+    @GetMapping(
+            path = "/api/timeline",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponseDto<List<String>> getTimeline(@RequestHeader("X-API-TOKEN") String token,
+                                                    @RequestParam(required = false) Integer limit) {
+        logger.info("Request to fetch home timeline");
+
+        try {
+            return timelineService.getTimeline(token, limit);
+        } catch (Exception e) {
+            logger.error("Error fetching home timeline: {}", e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    @GetMapping(
+            path = "/api/timeline/pull",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponseDto<PostPageResponseDto> getPullTimeline(@RequestHeader("X-API-TOKEN") String token,
+                                                               @RequestParam(required = false) Integer limit,
+                                                               @RequestParam(required = false) String before) {
+        logger.info("Request to fetch pull home timeline, before: {}", before);
+
+        try {
+            return pullTimelineService.getTimeline(token, limit, before);
+        } catch (Exception e) {
+            logger.error("Error fetching pull home timeline: {}", e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    // Called by follow-service after a user follows or unfollows someone
+    @PostMapping(
+            path = "/api/internal/timelines/{userId}/invalidate",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponseDto<String> invalidateTimeline(@PathVariable String userId) {
+        logger.info("Request to invalidate timeline for userId: {}", userId);
+
+        timelineService.invalidate(userId);
+        return WebResponseDto.<String>builder().data("OK").build();
+    }
+
+}
@@ -0,0 +1,54 @@
+package mini_twitter.follow_service.webclient;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+
+/**
+ * Tells post-service to drop a user's cached home timeline after they follow or unfollow someone, so
+ * the next read is rebuilt from the new set of followed authors. Sent after the follow change
+ * commits; a lost notification leaves the timeline with the old authors until it is evicted.
+ */
+@Component
+public class TimelineInvalidationClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimelineInvalidationClient.class);
+    private static final String BASE_URL = "http://localhost:8083/api/internal/timelines";
+    private static final Duration TIMEOUT = Duration.ofSeconds(2);
+
+    private final WebClient webClient;
+
+    @Autowired
+    public TimelineInvalidationClient(WebClient.Builder webClientBuilder) {
+        this.webClient = webClientBuilder.baseUrl(BASE_URL).build();
+    }
+
+    public void followingChanged(String followerId) {
+        Runnable send = () -> webClient.post()
+                .uri("/{userId}/invalidate", followerId)
+                .retrieve()
+                .toBodilessEntity()
+                .timeout(TIMEOUT)
+                .subscribe(
+                        response -> logger.debug("Timeline invalidation for user ID: {} delivered", followerId),
+                        e -> logger.warn("Failed to deliver timeline invalidation for user ID: {}: {}", followerId, e.getMessage())
+                );
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send.run();
+                }
+            });
+        } else {
+            send.run();
+        }
+    }
+}
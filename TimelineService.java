@@ -0,0 +1,285 @@
+package mini_twitter.post_service.service;
+
+import jakarta.annotation.PreDestroy;
+import mini_twitter.post_service.dto.WebResponseDto;
+import mini_twitter.post_service.entity.Post;
+import mini_twitter.post_service.repository.PostRepository;
+import mini_twitter.post_service.webclient.FollowServiceClient;
+import mini_twitter.post_service.webclient.UserServiceClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fan-out-on-write home timelines.
+ * <p>
+ * Each warm user has a bounded, newest-first list of post IDs in memory. A new post is pushed to the
+ * timelines of the author and of every follower that is currently warm; cold timelines are skipped
+ * and rebuilt from the database the next time their owner reads them. Deleted posts are not removed
+ * from timelines, readers resolve IDs through {@code GET /api/posts/{postId}} anyway.
+ * <p>
+ * At most {@code posts.timeline.max-users} timelines are kept; when full, the least recently read
+ * {@code EVICTION_BATCH_PERCENT} are dropped. Post IDs are interned so the same post held by many
+ * timelines is one string. Follow-service drops a user's timeline when they follow or unfollow
+ * someone, so the next read rebuilds it with the new set of authors.
+ */
+@Service
+public class TimelineService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimelineService.class);
+
+    private static final int DEFAULT_LIMIT = 50;
+
+    private static final int EVICTION_BATCH_PERCENT = 1;
+
+    private static final long SEED_TIMEOUT_MS = 5000;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserServiceClient userServiceClient;
+
+    @Autowired
+    private FollowServiceClient followServiceClient;
+
+    private final Map<String, Timeline> timelines = new ConcurrentHashMap<>();
+
+    private final ThreadPoolExecutor fanOutExecutor;
+
+    private final int capacity;
+
+    private final int maxTimelines;
+
+    public TimelineService(@Value("${posts.timeline.capacity:800}") int capacity,
+                           @Value("${posts.timeline.max-users:100000}") int maxTimelines,
+                           @Value("${posts.timeline.fan-out-threads:4}") int fanOutThreads) {
+        this.capacity = capacity;
+        this.maxTimelines = maxTimelines;
+        // When fan-out falls behind, the posting thread does the work itself instead of dropping it
+        this.fanOutExecutor = new ThreadPoolExecutor(fanOutThreads, fanOutThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1000), new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Schedules the fan-out of a newly created post once the surrounding transaction commits.
+     */
+    public void onPostCreated(Post post) {
+        String postId = post.getId().intern();
+        Runnable fanOut = () -> fanOutExecutor.execute(() -> fanOut(post.getUserId(), postId));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    fanOut.run();
+                }
+            });
+        } else {
+            fanOut.run();
+        }
+    }
+
+    public WebResponseDto<List<String>> getTimeline(String token, Integer limit) {
+        String userId = userServiceClient.getUserIdFromToken(token);
+        int size = limit == null ? DEFAULT_LIMIT : Math.min(Math.max(limit, 1), capacity);
+        logger.info("Fetching home timeline for userId: {}, limit: {}", userId, size);
+
+        try {
+            Timeline timeline = timelines.get(userId);
+            if (timeline == null || !timeline.awaitSeeded()) {
+                timeline = rebuild(userId, timeline);
+            }
+
+            List<String> postIds = timeline.newest(size);
+            logger.info("Returning {} timeline entries for userId: {}", postIds.size(), userId);
+            return WebResponseDto.<List<String>>builder().data(postIds).build();
+        } catch (Exception e) {
+            logger.error("Error fetching timeline for userId: {}. Exception: {}", userId, e.getMessage());
+            return WebResponseDto.<List<String>>builder()
+                    .errors("An error occurred while fetching the timeline.")
+                    .build();
+        }
+    }
+
+    private void fanOut(String authorId, String postId) {
+        try {
+            int delivered = push(authorId, postId) ? 1 : 0;
+            for (String followerId : followServiceClient.getFollowerIds(authorId)) {
+                if (push(followerId, postId)) {
+                    delivered++;
+                }
+            }
+            logger.info("Fanned out post ID: {} to {} warm timelines", postId, delivered);
+        } catch (Exception e) {
+            logger.error("Fan-out failed for post ID: {}. Exception: {}", postId, e.getMessage());
+        }
+    }
+
+    private boolean push(String userId, String postId) {
+        Timeline timeline = timelines.get(userId);
+        if (timeline == null) {
+            return false;
+        }
+        timeline.push(postId);
+        return true;
+    }
+
+    /**
+     * Drops a user's timeline after their followings changed; the next read rebuilds it.
+     */
+    public void invalidate(String userId) {
+        if (timelines.remove(userId) != null) {
+            logger.info("Dropped timeline for userId: {}", userId);
+        }
+    }
+
+    /**
+     * Installs an unseeded timeline first so that posts fanned out while the database query runs are
+     * not lost, then seeds it with the newest posts of the user and everyone they follow. Other
+     * readers that find the timeline wait until it is seeded instead of reading it empty.
+     */
+    private Timeline rebuild(String userId, Timeline unusable) {
+        Timeline timeline = new Timeline(capacity);
+        if (timelines.size() >= maxTimelines) {
+            evictLeastRecentlyRead();
+        }
+        boolean cached = unusable == null
+                ? timelines.putIfAbsent(userId, timeline) == null
+                : timelines.replace(userId, unusable, timeline);
+        if (!cached) {
+            // Another reader got there first; use its timeline once seeded, else build one uncached
+            Timeline current = timelines.get(userId);
+            if (current != null && current.awaitSeeded()) {
+                return current;
+            }
+        }
+
+        try {
+            List<String> authorIds = new ArrayList<>(followServiceClient.getFollowingIds(userId));
+            authorIds.add(userId);
+
+            List<String> postIds = postRepository.findIdsByUserIdIn(authorIds, PageRequest.of(0, capacity));
+            timeline.seed(postIds);
+            logger.info("Rebuilt timeline for userId: {} with {} posts from {} authors", userId, postIds.size(), authorIds.size());
+            return timeline;
+        } catch (RuntimeException e) {
+            if (cached) {
+                timelines.remove(userId, timeline);
+            }
+            timeline.fail();
+            throw e;
+        }
+    }
+
+    // Drops the least recently read timelines in one batch so the scan is amortized over many rebuilds
+    private void evictLeastRecentlyRead() {
+        int batch = Math.max(1, maxTimelines * EVICTION_BATCH_PERCENT / 100);
+        PriorityQueue<Map.Entry<String, Timeline>> oldest = new PriorityQueue<>(
+                Comparator.comparingLong((Map.Entry<String, Timeline> entry) -> entry.getValue().lastReadAt).reversed());
+        for (Map.Entry<String, Timeline> entry : timelines.entrySet()) {
+            oldest.add(entry);
+            if (oldest.size() > batch) {
+                oldest.poll();
+            }
+        }
+        for (Map.Entry<String, Timeline> entry : oldest) {
+            timelines.remove(entry.getKey(), entry.getValue());
+        }
+        logger.info("Evicted {} least recently read timelines", oldest.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fanOutExecutor.shutdown();
+    }
+
+    private static final class Timeline {
+
+        private final int capacity;
+
+        // Newest first
+        private final ArrayDeque<String> postIds;
+
+        private final CountDownLatch seeded = new CountDownLatch(1);
+
+        private volatile boolean failed;
+
+        private volatile long lastReadAt = System.currentTimeMillis();
+
+        private Timeline(int capacity) {
+            this.capacity = capacity;
+            this.postIds = new ArrayDeque<>(capacity);
+        }
+
+        /**
+         * @return false if seeding failed or did not finish in time and the caller should rebuild
+         */
+        private boolean awaitSeeded() {
+            try {
+                return seeded.await(SEED_TIMEOUT_MS, TimeUnit.MILLISECONDS) && !failed;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        private void fail() {
+            failed = true;
+            seeded.countDown();
+        }
+
+        private synchronized void push(String postId) {
+            postIds.addFirst(postId);
+            if (postIds.size() > capacity) {
+                postIds.removeLast();
+            }
+        }
+
+        // Appends older posts behind whatever was pushed during the rebuild
+        private void seed(List<String> newestFirst) {
+            synchronized (this) {
+                Set<String> present = new HashSet<>(postIds);
+                for (String postId : newestFirst) {
+                    if (postIds.size() >= capacity) {
+                        break;
+                    }
+                    if (!present.contains(postId)) {
+                        postIds.addLast(postId.intern());
+                    }
+                }
+            }
+            seeded.countDown();
+        }
+
+        private synchronized List<String> newest(int limit) {
+            lastReadAt = System.currentTimeMillis();
+            List<String> result = new ArrayList<>(Math.min(limit, postIds.size()));
+            Iterator<String> iterator = postIds.iterator();
+            while (iterator.hasNext() && result.size() < limit) {
+                result.add(iterator.next());
+            }
+            return result;
+        }
+    }
+}
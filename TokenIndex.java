@@ -0,0 +1,138 @@
+package mini_twitter.user_service.service;
+
+import mini_twitter.user_service.dto.TokenIndexStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory token -> userId index backing {@code GET /api/users/me}.
+ * <p>
+ * Entries are written by {@link AuthService#login} and removed by {@link AuthService#logout}, and
+ * expire at the user's {@code tokenExpiredAt}. A lookup that misses falls back to the database once
+ * and re-populates the index, so only cold tokens (e.g. after a restart) reach the {@code users} table.
+ * <p>
+ * A re-population must not resurrect a token that was logged out while its row was being read, so
+ * evictions bump a striped version counter and {@link #putUnlessEvicted} backs off when it moved.
+ */
+@Component
+public class TokenIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenIndex.class);
+
+    private static final int STRIPES = 1024;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final AtomicLongArray evictions = new AtomicLongArray(STRIPES);
+
+    @Value("${users.token-index.max-entries:100000}")
+    private int maxEntries;
+
+    /**
+     * @return the userId for the token, or null when the token is unknown or expired
+     */
+    public String get(String token) {
+        Entry entry = entries.get(token);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            entries.remove(token, entry);
+            misses.increment();
+            return null;
+        }
+
+        hits.increment();
+        return entry.userId;
+    }
+
+    public void put(String token, String userId, Long expiresAt) {
+        insert(token, userId, expiresAt);
+    }
+
+    /**
+     * @return the version to pass to {@link #putUnlessEvicted}; read it before loading the token's row
+     */
+    public long evictionVersion(String token) {
+        return evictions.get(stripe(token));
+    }
+
+    /**
+     * Indexes a token loaded from the database, unless it was evicted since {@code version} was read.
+     * An unrelated eviction on the same stripe at worst skips one re-population.
+     */
+    public void putUnlessEvicted(String token, String userId, Long expiresAt, long version) {
+        Entry entry = insert(token, userId, expiresAt);
+        // Checked after the insert: an eviction either bumped the version already or removes the entry itself
+        if (entry != null && evictions.get(stripe(token)) != version) {
+            entries.remove(token, entry);
+        }
+    }
+
+    public void evict(String token) {
+        if (token != null) {
+            evictions.incrementAndGet(stripe(token));
+            entries.remove(token);
+        }
+    }
+
+    public TokenIndexStats stats() {
+        return TokenIndexStats.builder()
+                .size(entries.size())
+                .hits(hits.sum())
+                .misses(misses.sum())
+                .build();
+    }
+
+    private Entry insert(String token, String userId, Long expiresAt) {
+        if (token == null || expiresAt == null || expiresAt <= System.currentTimeMillis()) {
+            return null;
+        }
+
+        if (entries.size() >= maxEntries) {
+            purgeExpired();
+            if (entries.size() >= maxEntries) {
+                logger.warn("Token index is full ({} entries), not indexing token for userId: {}", maxEntries, userId);
+                return null;
+            }
+        }
+
+        Entry entry = new Entry(userId, expiresAt);
+        entries.put(token, entry);
+        return entry;
+    }
+
+    private static int stripe(String token) {
+        return (token.hashCode() & Integer.MAX_VALUE) % STRIPES;
+    }
+
+    private void purgeExpired() {
+        long now = System.currentTimeMillis();
+        entries.entrySet().removeIf(e -> e.getValue().expiresAt <= now);
+    }
+
+    private static final class Entry {
+
+        private final String userId;
+
+        private final long expiresAt;
+
+        private Entry(String userId, long expiresAt) {
+            this.userId = userId;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package mini_twitter.user_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TokenIndexStats {
+
+    private int size;
+
+    private long hits;
+
+    private long misses;
+}
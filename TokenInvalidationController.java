@@ -0,0 +1,31 @@
+package mini_twitter.like_service.controller;
+
+import mini_twitter.like_service.dto.WebResponseDto;
+import mini_twitter.like_service.webclient.UserServiceClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+public class TokenInvalidationController {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenInvalidationController.class);
+
+    @Autowired
+    private UserServiceClient userServiceClient;
+
+    // Called by user-service on logout so cached token lookups do not outlive the session
+    @PostMapping(
+            path = "/api/internal/tokens/invalidate",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponseDto<String> invalidateToken(@RequestHeader("X-API-TOKEN") String token) {
+        logger.info("Received token invalidation");
+
+        userServiceClient.invalidateToken(token);
+        return WebResponseDto.<String>builder().data("OK").build();
+    }
+
+}
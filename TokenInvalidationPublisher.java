@@ -0,0 +1,49 @@
+package mini_twitter.user_service.webclient;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Pushes logout invalidations to the services that cache token lookups in their
+ * {@code UserServiceClient}. Delivery is best effort: a subscriber that misses the push still drops
+ * the entry once its cache TTL elapses.
+ */
+@Component
+public class TokenInvalidationPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenInvalidationPublisher.class);
+    private static final String INVALIDATE_PATH = "/api/internal/tokens/invalidate";
+    private static final Duration TIMEOUT = Duration.ofSeconds(2);
+
+    private final WebClient webClient;
+
+    @Value("${users.token-invalidation.subscribers:http://localhost:8085}")
+    private List<String> subscribers;
+
+    @Autowired
+    public TokenInvalidationPublisher(WebClient.Builder webClientBuilder) {
+        this.webClient = webClientBuilder.build();
+    }
+
+    public void publish(String token) {
+        for (String subscriber : subscribers) {
+            webClient.post()
+                    .uri(subscriber + INVALIDATE_PATH)
+                    .header("X-API-TOKEN", token)
+                    .retrieve()
+                    .toBodilessEntity()
+                    .timeout(TIMEOUT)
+                    .subscribe(
+                            response -> logger.debug("Token invalidation delivered to {}", subscriber),
+                            e -> logger.warn("Failed to deliver token invalidation to {}: {}", subscriber, e.getMessage())
+                    );
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package mini_twitter.follow_service.webclient;
+
+import jakarta.annotation.PreDestroy;
+import mini_twitter.follow_service.dto.UserBatchRequestDto;
+import mini_twitter.follow_service.dto.UserResponseDto;
+import mini_twitter.follow_service.dto.WebResponseDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves many users through user-service's {@code POST /api/users/batch}.
+ * <p>
+ * IDs are split into chunks that are fetched in parallel; the size of the worker pool caps the
+ * number of batches in flight against user-service. Results are reassembled in the order of the
+ * requested IDs, and IDs user-service does not know are left out.
+ */
+@Component
+public class UserBatchClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserBatchClient.class);
+    private static final String BATCH_URL = "http://localhost:8081/api/users/batch";
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    private final int chunkSize;
+
+    private final ExecutorService executor;
+
+    public UserBatchClient(@Value("${users.batch.chunk-size:200}") int chunkSize,
+                           @Value("${users.batch.max-in-flight:4}") int maxInFlight) {
+        this.chunkSize = chunkSize;
+        this.executor = Executors.newFixedThreadPool(maxInFlight);
+    }
+
+    public List<UserResponseDto> getUsersByIds(List<String> userIds) {
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(userIds));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        List<CompletableFuture<List<UserResponseDto>>> batches = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<String> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            batches.add(CompletableFuture.supplyAsync(() -> fetchChunk(chunk), executor));
+        }
+
+        Map<String, UserResponseDto> usersById = new HashMap<>();
+        for (CompletableFuture<List<UserResponseDto>> batch : batches) {
+            for (UserResponseDto user : batch.join()) {
+                usersById.put(user.getId(), user);
+            }
+        }
+
+        logger.info("Resolved {} of {} users in {} batches", usersById.size(), ids.size(), batches.size());
+        return userIds.stream()
+                .map(usersById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private List<UserResponseDto> fetchChunk(List<String> chunk) {
+        try {
+            WebResponseDto<List<UserResponseDto>> response = restTemplate.exchange(
+                    BATCH_URL,
+                    HttpMethod.POST,
+                    new HttpEntity<>(UserBatchRequestDto.builder().ids(chunk).build()),
+                    new ParameterizedTypeReference<WebResponseDto<List<UserResponseDto>>>() {}
+            ).getBody();
+
+            if (response == null || response.getData() == null) {
+                logger.error("Null response for batch of {} users", chunk.size());
+                throw new RuntimeException("Failed to get users: Null response");
+            }
+            return response.getData();
+        } catch (Exception e) {
+            logger.error("Error fetching batch of {} users", chunk.size(), e);
+            throw new RuntimeException("Failed to get users", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,21 @@
+package mini_twitter.user_service.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class UserBatchRequest {
+
+    @NotEmpty
+    @Size(max = 500)
+    private List<String> ids;
+}
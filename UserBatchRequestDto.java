@@ -0,0 +1,17 @@
+package mini_twitter.follow_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class UserBatchRequestDto {
+
+    private List<String> ids;
+}
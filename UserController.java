@@ -1,7 +1,9 @@
 package mini_twitter.user_service.controller;
 
 import mini_twitter.user_service.dto.RegisterUserRequest;
+import mini_twitter.user_service.dto.TokenIndexStats;
 import mini_twitter.user_service.dto.UpdateUserRequest;
+import mini_twitter.user_service.dto.UserBatchRequest;
 import mini_twitter.user_service.dto.UserResponse;
 import mini_twitter.user_service.dto.WebResponse;
 import mini_twitter.user_service.service.UserService;
@@ -12,6 +14,8 @@ import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.List;
+
 @RestController
 public class UserController {
 
@@ -78,6 +82,18 @@ public class UserController {
         }
     }
 
+    @PostMapping(
+            path = "/api/users/batch",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponse<List<UserResponse>> getBatch(@RequestBody UserBatchRequest request) {
+        logger.debug("Received batch user request for {} IDs", request.getIds() == null ? 0 : request.getIds().size());
+
+        List<UserResponse> users = userService.getBatch(request);
+        return WebResponse.<List<UserResponse>>builder().data(users).build();
+    }
+
     @GetMapping(
             path = "/api/users/me",
             produces = MediaType.APPLICATION_JSON_VALUE
@@ -95,4 +111,14 @@ public class UserController {
         }
     }
 
+    @GetMapping(
+            path = "/api/users/me/token-index",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponse<TokenIndexStats> getTokenIndexStats() {
+        TokenIndexStats stats = userService.getTokenIndexStats();
+        logger.debug("Token index stats: {}", stats);
+        return WebResponse.<TokenIndexStats>builder().data(stats).build();
+    }
+
 }
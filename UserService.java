@@ -3,11 +3,13 @@ package mini_twitter.user_service.service;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import mini_twitter.user_service.dto.RegisterUserRequest;
+import mini_twitter.user_service.dto.TokenIndexStats;
+import mini_twitter.user_service.dto.UserBatchRequest;
 import mini_twitter.user_service.dto.UpdateUserRequest;
 import mini_twitter.user_service.dto.UserResponse;
 import mini_twitter.user_service.entity.User;
 import mini_twitter.user_service.repository.UserRepository;
-import mini_twitter.user_service.security.BCrypt;
+import mini_twitter.user_service.security.PasswordHasher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,7 +17,13 @@ import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -29,6 +37,15 @@ public class UserService {
     @Autowired
     private ValidationService validationService;
 
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private TokenIndex tokenIndex;
+
+    @Autowired
+    private SignedTokenService signedTokenService;
+
     @Transactional
     public void register(RegisterUserRequest request) {
         logger.info("Starting user registration process for username: {}", request.getUsername());
@@ -45,7 +62,7 @@ public class UserService {
         user.setId(UUID.randomUUID().toString());
         user.setUsername(request.getUsername());
         user.setEmail(request.getEmail());
-        user.setPassword(BCrypt.hashpw(request.getPassword(), BCrypt.gensalt()));
+        user.setPassword(passwordHasher.hash(request.getPassword()));
         user.setName(request.getName());
         user.setBio(request.getBio());
 
@@ -69,11 +86,44 @@ public class UserService {
         return response;
     }
 
+    // get many users by ID in one query, in request order; unknown IDs are skipped
+    public List<UserResponse> getBatch(UserBatchRequest request) {
+        validationService.validate(request);
+
+        LinkedHashSet<String> ids = new LinkedHashSet<>(request.getIds());
+        logger.debug("Fetching {} users in batch", ids.size());
+
+        Map<String, User> usersById = userRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<UserResponse> responses = ids.stream()
+                .map(usersById::get)
+                .filter(Objects::nonNull)
+                .map(this::toUserResponse)
+                .collect(Collectors.toList());
+
+        logger.debug("Resolved {} of {} users in batch", responses.size(), ids.size());
+        return responses;
+    }
+
     // get user ID by token
     public String getUserIdByToken(String token) {
         logger.info("Fetching user ID for token: {}", token);
 
-        // Fetch the user by token
+        String signedUserId = signedTokenService.resolveUserId(token);
+        if (signedUserId != null) {
+            return signedUserId;
+        }
+
+        String indexedUserId = tokenIndex.get(token);
+        if (indexedUserId != null) {
+            logger.debug("Token index hit for userId: {}", indexedUserId);
+            return indexedUserId;
+        }
+
+        // Cold miss: fetch the user by token and index it for subsequent calls, unless a logout evicted
+        // the token meanwhile
+        long evictionVersion = tokenIndex.evictionVersion(token);
         User currentUser = userRepository.findFirstByToken(token)
                 .orElseThrow(() -> {
                     logger.error("User not found with token: {}", token);
@@ -81,10 +131,15 @@ public class UserService {
                 });
 
         logger.info("User found for token: {}", currentUser.getUsername());
+        tokenIndex.putUnlessEvicted(token, currentUser.getId(), currentUser.getTokenExpiredAt(), evictionVersion);
 
         return currentUser.getId();
     }
 
+    public TokenIndexStats getTokenIndexStats() {
+        return tokenIndex.stats();
+    }
+
     //update user
     public UserResponse update(UpdateUserRequest request, String token, String userId) {
         logger.info("Starting update process for userId: {} with token: {}", userId, token);
@@ -103,7 +158,7 @@ public class UserService {
         logger.info("User found: {}", currentUser);
 
         currentUser.setEmail(request.getEmail());
-        currentUser.setPassword(BCrypt.hashpw(request.getPassword(), BCrypt.gensalt()));
+        currentUser.setPassword(passwordHasher.hash(request.getPassword()));
         currentUser.setName(request.getName());
         currentUser.setBio(request.getBio());
 
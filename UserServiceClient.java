@@ -1,30 +1,76 @@
 package mini_twitter.like_service.webclient;
 
 import mini_twitter.like_service.dto.WebResponseDto;
+import mini_twitter.like_service.security.SignedTokenVerifier;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.util.Map;
 
 @Component
 public class UserServiceClient {
 
     private static final Logger logger = LoggerFactory.getLogger(UserServiceClient.class);
     private static final String BASE_URL = "http://localhost:8081/api/users";
+    private static final String TOKENS_URL = "http://localhost:8081/api/internal/tokens";
     private final WebClient webClient;
+    private final WebClient revokedTokensClient;
+    private final UserTokenCache tokenCache;
+    private final SignedTokenVerifier signedTokenVerifier;
+    private final long syncIntervalMillis;
+    private final long syncRetryMillis;
+
+    // Only touched by the scheduler thread
+    private long nextSyncAt;
+    private long syncBackoffMillis;
 
     @Autowired
-    public UserServiceClient(WebClient.Builder webClientBuilder) {
+    public UserServiceClient(WebClient.Builder webClientBuilder, UserTokenCache tokenCache,
+                             SignedTokenVerifier signedTokenVerifier,
+                             @Value("${users.revoked-tokens.sync-interval-ms:60000}") long syncIntervalMillis,
+                             @Value("${users.revoked-tokens.retry-initial-ms:1000}") long syncRetryMillis) {
         this.webClient = webClientBuilder.baseUrl(BASE_URL).build();
+        this.revokedTokensClient = webClientBuilder.baseUrl(TOKENS_URL).build();
+        this.tokenCache = tokenCache;
+        this.signedTokenVerifier = signedTokenVerifier;
+        this.syncIntervalMillis = syncIntervalMillis;
+        this.syncRetryMillis = syncRetryMillis;
+        this.syncBackoffMillis = syncRetryMillis;
     }
 
     public String getUserIdFromToken(String token) {
         String url = "/me";
 
+        // Signed tokens are authenticated locally and never reach user-service, except before the
+        // revoked-token denylist is synced: those go through /me like opaque tokens
+        if (signedTokenVerifier.isSignedToken(token) && signedTokenVerifier.isSynced()) {
+            String userId = signedTokenVerifier.verify(token);
+            if (userId == null) {
+                logger.warn("Rejecting invalid, expired or revoked signed token");
+                throw new RuntimeException("Failed to get user ID from token: Invalid token");
+            }
+            return userId;
+        }
+
+        UserTokenCache.Entry cached = tokenCache.get(token);
+        if (cached != null) {
+            if (!cached.isValid()) {
+                logger.warn("Rejecting token from negative cache: {}", token);
+                throw new RuntimeException("Failed to get user ID from token: Invalid token");
+            }
+            logger.debug("Resolved user ID {} from token cache", cached.getUserId());
+            return cached.getUserId();
+        }
+
         try {
             logger.info("Fetching user ID from token: {}", token);
 
@@ -36,7 +82,13 @@ public class UserServiceClient {
                     .bodyToMono(new ParameterizedTypeReference<WebResponseDto<String>>() {})
                     .block();
 
-            return handleResponse(response, token);
+            String userId = handleResponse(response, token);
+            tokenCache.putValid(token, userId);
+            return userId;
+        } catch (WebClientResponseException.NotFound | WebClientResponseException.Unauthorized e) {
+            logger.warn("User service rejected token: {}", token);
+            tokenCache.putInvalid(token);
+            throw new RuntimeException("Failed to get user ID from token", e);
         } catch (Exception e) {
             logger.error("Error fetching user ID from token: {}", token, e);
             throw new RuntimeException("Failed to get user ID from token", e);
@@ -53,4 +105,54 @@ public class UserServiceClient {
         return response.getData();
     }
 
+    /**
+     * Pulls the signed-token denylist from user-service. Runs at startup and then every
+     * {@code users.revoked-tokens.sync-interval-ms}, so revocations pushed while this service was down
+     * are picked up too. A failed sync is retried with exponential backoff, starting at
+     * {@code users.revoked-tokens.retry-initial-ms} and capped at the sync interval.
+     */
+    @Scheduled(fixedDelayString = "${users.revoked-tokens.retry-initial-ms:1000}")
+    public void syncRevokedTokens() {
+        long now = System.currentTimeMillis();
+        if (!signedTokenVerifier.isEnabled() || now < nextSyncAt) {
+            return;
+        }
+
+        if (fetchRevokedTokens()) {
+            nextSyncAt = now + syncIntervalMillis;
+            syncBackoffMillis = syncRetryMillis;
+        } else {
+            logger.warn("Retrying revoked token sync in {} ms", syncBackoffMillis);
+            nextSyncAt = now + syncBackoffMillis;
+            syncBackoffMillis = Math.min(syncBackoffMillis * 2, syncIntervalMillis);
+        }
+    }
+
+    private boolean fetchRevokedTokens() {
+        try {
+            WebResponseDto<Map<String, Long>> response = revokedTokensClient.method(HttpMethod.GET)
+                    .uri("/revoked")
+                    .accept(MediaType.APPLICATION_JSON)
+                    .retrieve()
+                    .bodyToMono(new ParameterizedTypeReference<WebResponseDto<Map<String, Long>>>() {})
+                    .block();
+
+            if (response == null || response.getData() == null) {
+                logger.error("Null response while syncing revoked tokens");
+                return false;
+            }
+            signedTokenVerifier.revokeAll(response.getData());
+            return true;
+        } catch (Exception e) {
+            logger.error("Error syncing revoked tokens: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    public void invalidateToken(String token) {
+        logger.info("Invalidating cached token: {}", token);
+        tokenCache.invalidate(token);
+        signedTokenVerifier.revoke(token);
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,85 @@
+package mini_twitter.like_service.webclient;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded, TTL-based token -> userId cache used by {@link UserServiceClient}.
+ * <p>
+ * Tokens that user-service rejected are cached as negative entries with a shorter TTL so that a
+ * client retrying with a bad token does not turn into a stream of remote calls. User-service pushes
+ * an invalidation on logout, see {@code TokenInvalidationController}.
+ */
+@Component
+public class UserTokenCache {
+
+    private final Map<String, Entry> entries;
+
+    private final long positiveTtlMillis;
+
+    private final long negativeTtlMillis;
+
+    public UserTokenCache(@Value("${users.token-cache.max-entries:10000}") int maxEntries,
+                          @Value("${users.token-cache.ttl-ms:60000}") long positiveTtlMillis,
+                          @Value("${users.token-cache.negative-ttl-ms:10000}") long negativeTtlMillis) {
+        this.positiveTtlMillis = positiveTtlMillis;
+        this.negativeTtlMillis = negativeTtlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @return the cached lookup, or null when the token has to be resolved remotely
+     */
+    public synchronized Entry get(String token) {
+        Entry entry = entries.get(token);
+        if (entry == null) {
+            return null;
+        }
+
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            entries.remove(token);
+            return null;
+        }
+        return entry;
+    }
+
+    public synchronized void putValid(String token, String userId) {
+        entries.put(token, new Entry(userId, System.currentTimeMillis() + positiveTtlMillis));
+    }
+
+    public synchronized void putInvalid(String token) {
+        entries.put(token, new Entry(null, System.currentTimeMillis() + negativeTtlMillis));
+    }
+
+    public synchronized void invalidate(String token) {
+        entries.remove(token);
+    }
+
+    public static final class Entry {
+
+        private final String userId;
+
+        private final long expiresAt;
+
+        private Entry(String userId, long expiresAt) {
+            this.userId = userId;
+            this.expiresAt = expiresAt;
+        }
+
+        public boolean isValid() {
+            return userId != null;
+        }
+
+        public String getUserId() {
+            return userId;
+        }
+    }
+}
@@ -3,6 +3,7 @@ CREATE TABLE IF NOT EXISTS `post_likes` (
   `post_id` UUID NOT NULL,
   `user_id` UUID NOT NULL,
   `created_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  UNIQUE KEY `uk_post_likes_post_user` (`post_id`, `user_id`),
   FOREIGN KEY (`post_id`) REFERENCES `posts`(`id`) ON DELETE CASCADE,
   FOREIGN KEY (`user_id`) REFERENCES `users`(`id`) ON DELETE CASCADE
 );
@@ -12,6 +13,17 @@ CREATE TABLE IF NOT EXISTS `comment_likes` (
   `comment_id` UUID NOT NULL,
   `user_id` UUID NOT NULL,
   `created_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  UNIQUE KEY `uk_comment_likes_comment_user` (`comment_id`, `user_id`),
   FOREIGN KEY (`comment_id`) REFERENCES `comments`(`id`) ON DELETE CASCADE,
   FOREIGN KEY (`user_id`) REFERENCES `users`(`id`) ON DELETE CASCADE
-);
\ No newline at end of file
+);
+
+CREATE TABLE IF NOT EXISTS `post_like_counts` (
+  `post_id` UUID PRIMARY KEY,
+  `like_count` BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS `comment_like_counts` (
+  `comment_id` UUID PRIMARY KEY,
+  `like_count` BIGINT NOT NULL DEFAULT 0
+);
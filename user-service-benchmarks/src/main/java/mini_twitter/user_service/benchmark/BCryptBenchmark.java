@@ -0,0 +1,90 @@
+package mini_twitter.user_service.benchmark;
+
+import mini_twitter.user_service.security.BCrypt;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link BCrypt} with the pre-change {@link LegacyBCrypt} for each work factor.
+ * <p>
+ * Throughput is reported in hashes per second; run through {@link #main(String[])} (or with
+ * {@code -prof gc}) to also get {@code gc.alloc.rate.norm}, the bytes allocated per hash. The setup
+ * refuses to run if the two implementations ever disagree on the produced hash.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BCryptBenchmark {
+
+    @Param({"4", "6", "8", "10", "12"})
+    private int logRounds;
+
+    private byte[] password;
+
+    private String salt;
+
+    private String hash;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SecureRandom random = new SecureRandom();
+        password = "correct horse battery staple".getBytes(StandardCharsets.UTF_8);
+        salt = BCrypt.gensalt(logRounds, random);
+
+        hash = BCrypt.hashpw(password, salt);
+        String legacyHash = LegacyBCrypt.hashpw(password, salt);
+        if (!hash.equals(legacyHash)) {
+            throw new IllegalStateException("BCrypt output differs from LegacyBCrypt for salt " + salt);
+        }
+    }
+
+    @Benchmark
+    public String hashpw() {
+        return BCrypt.hashpw(password, salt);
+    }
+
+    @Benchmark
+    public String hashpwLegacy() {
+        return LegacyBCrypt.hashpw(password, salt);
+    }
+
+    @Benchmark
+    public boolean checkpw() {
+        return BCrypt.checkpw(password, hash);
+    }
+
+    @Benchmark
+    public boolean checkpwLegacy() {
+        return LegacyBCrypt.checkpw(password, hash);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(BCryptBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}